@@ -0,0 +1,136 @@
+package com.yasboss.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ✨ AIMD Concurrency Limiter
+ * Grows the in-flight limit by ~1 per window of fast, successful requests and
+ * cuts it by {@code backoffRatio} whenever a request is slow or fails with a
+ * 5xx. Callers past the limit wait at most {@code maxQueueWait}; a full queue
+ * or an expired wait is a rejection, so the caller can shed load immediately
+ * instead of parking on the connection pool.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final long maxQueueWaitNanos;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      long maxQueueWaitMs, long latencyTargetMs, double backoffRatio) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(latencyTargetMs);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Takes a slot, waiting up to the queue budget. Returns false when the request must be shed.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                accepted.increment();
+                return true;
+            }
+            if (queued >= maxQueue) {
+                rejected.increment();
+                return false;
+            }
+
+            queued++;
+            try {
+                long remaining = maxQueueWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = slotFreed.awaitNanos(remaining);
+                }
+                inFlight++;
+                accepted.increment();
+                queueWaitNanos.add(System.nanoTime() - start);
+                return true;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the slot back and feeds the outcome into the limit.
+     */
+    public void release(long latencyNanos, boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (failed || latencyNanos > latencyTargetNanos) {
+                dropped.increment();
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                // +1 per full window of good responses
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("limit", (int) limit);
+            stats.put("inFlight", inFlight);
+            stats.put("queued", queued);
+        } finally {
+            lock.unlock();
+        }
+        long acceptedCount = accepted.sum();
+        stats.put("accepted", acceptedCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("slowOrFailed", dropped.sum());
+        stats.put("avgQueueWaitMs", acceptedCount == 0 ? 0
+            : TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.sum()) / (double) acceptedCount);
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,138 @@
+package com.yasboss.config;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Admission Control
+ * Checkout and browse traffic each get their own adaptive limiter, so a flood
+ * of catalogue reads can't take the DB connections checkout needs (and vice
+ * versa). Requests that can't get a slot within the queue budget are answered
+ * with 429 + Retry-After right away instead of waiting out the Hikari timeout.
+ * <p>
+ * Lane maximums come from the Hikari pool: checkout may use the whole pool, while
+ * browse is capped at the pool minus {@code admission.checkout.reserved-connections},
+ * so even a saturated browse lane leaves that many connections for checkout.
+ * The split is checked at startup.
+ */
+@Component
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter checkoutLimiter;
+    private final AdaptiveConcurrencyLimiter browseLimiter;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    public AdmissionControlFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${admission.checkout.reserved-connections:6}") int checkoutReserve,
+            @Value("${admission.checkout.initial-limit:10}") int checkoutInitial,
+            @Value("${admission.checkout.min-limit:2}") int checkoutMin,
+            @Value("${admission.checkout.max-queue:50}") int checkoutQueue,
+            @Value("${admission.checkout.queue-budget-ms:500}") long checkoutBudgetMs,
+            @Value("${admission.checkout.latency-target-ms:1500}") long checkoutLatencyMs,
+            @Value("${admission.browse.initial-limit:20}") int browseInitial,
+            @Value("${admission.browse.min-limit:4}") int browseMin,
+            @Value("${admission.browse.max-queue:100}") int browseQueue,
+            @Value("${admission.browse.queue-budget-ms:100}") long browseBudgetMs,
+            @Value("${admission.browse.latency-target-ms:300}") long browseLatencyMs,
+            @Value("${admission.backoff-ratio:0.9}") double backoffRatio) {
+        if (checkoutReserve < 1 || checkoutReserve >= poolSize) {
+            throw new IllegalStateException("admission.checkout.reserved-connections (" + checkoutReserve
+                + ") must be at least 1 and below spring.datasource.hikari.maximum-pool-size (" + poolSize + ")");
+        }
+        int checkoutMax = poolSize;
+        int browseMax = poolSize - checkoutReserve;
+        if (checkoutMin > checkoutMax || browseMin > browseMax) {
+            throw new IllegalStateException("Admission min limits (checkout " + checkoutMin + ", browse " + browseMin
+                + ") exceed the lane maximums derived from the pool (checkout " + checkoutMax + ", browse " + browseMax + ")");
+        }
+        log.info("Admission lanes sized from a pool of {}: checkout max {}, browse max {} ({} reserved for checkout)",
+            poolSize, checkoutMax, browseMax, checkoutReserve);
+
+        this.checkoutLimiter = new AdaptiveConcurrencyLimiter("checkout", checkoutInitial, checkoutMin, checkoutMax,
+            checkoutQueue, checkoutBudgetMs, checkoutLatencyMs, backoffRatio);
+        this.browseLimiter = new AdaptiveConcurrencyLimiter("browse", browseInitial, browseMin, browseMax,
+            browseQueue, browseBudgetMs, browseLatencyMs, backoffRatio);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limiterFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiterFor(request);
+
+        boolean admitted;
+        try {
+            admitted = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+
+        if (!admitted) {
+            log.warn("Shedding {} request {} {}", limiter.getName(), request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":429,\"message\":\"We're busy right now. Please retry in a moment.\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+
+        if ("POST".equals(method) && (path.equals("/api/orders/checkout")
+                || path.equals("/api/orders/process-payment")
+                || path.startsWith("/api/checkout/"))) {
+            return checkoutLimiter;
+        }
+        if ("GET".equals(method) && (path.startsWith("/api/products")
+                || path.startsWith("/api/categories")
+                || path.startsWith("/api/parenting/articles"))) {
+            return browseLimiter;
+        }
+        return null;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put(checkoutLimiter.getName(), checkoutLimiter.snapshot());
+        metrics.put(browseLimiter.getName(), browseLimiter.snapshot());
+        return metrics;
+    }
+}
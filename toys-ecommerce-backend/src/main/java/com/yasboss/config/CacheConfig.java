@@ -29,6 +29,13 @@ public class CacheConfig {
                 .expireAfterWrite(60, TimeUnit.MINUTES) // ⏱️ Products stay in cache for 1 hour
                 .maximumSize(500) // 📦 Cache up to 500 unique products
                 .build());
+
+        // ✨ Customer order history pages, keyed "email#page#size"; evicted per user on status changes
+        cacheManager.registerCustomCache("orderHistory",
+            Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(5_000)
+                .build());
                 
         return cacheManager;
     }
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,11 +13,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.yasboss.model.Order;
+import com.yasboss.model.OrderStatus;
 import com.yasboss.model.Product;
-import com.yasboss.repository.OrderRepository;
 import com.yasboss.repository.ProductRepository;
+import com.yasboss.service.AdminEventStream;
+import com.yasboss.service.DashboardCounters;
+import com.yasboss.service.OrderService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -27,33 +32,42 @@ public class AdminDashboardController {
     private ProductRepository productRepository;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
+    @Autowired
+    private DashboardCounters dashboardCounters;
+
+    @Autowired
+    private AdminEventStream adminEventStream;
+
+    // ✨ Served from in-memory counters: dashboard refreshes never hit the database
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> getAdminSummary() {
-       Map<String, Object> stats = new HashMap<>();
-    
-        // Updated method calls
-        stats.put("totalProducts", productRepository.count());
-        stats.put("lowStockCount", productRepository.countByStockLessThan(10)); 
-        
-        Double revenue = orderRepository.getTotalRevenue();
-        stats.put("totalRevenue", revenue != null ? revenue : 0.0);
-        
-        stats.put("pendingOrders", orderRepository.countByStatus("PENDING"));
-        
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProducts", dashboardCounters.totalProducts());
+        stats.put("lowStockCount", dashboardCounters.lowStockCount());
+        stats.put("totalRevenue", dashboardCounters.revenue());
+        stats.put("pendingOrders", dashboardCounters.ordersWithStatus(OrderStatus.PENDING));
+        stats.put("ordersByStatus", dashboardCounters.ordersByStatus());
+        stats.put("reconciledAt", dashboardCounters.reconciledAt());
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalOrders", orderRepository.count());
-        stats.put("totalRevenue", orderRepository.getTotalRevenue());
-        stats.put("lowStockCount", productRepository.countByStockLessThan(10));
+        stats.put("totalOrders", dashboardCounters.totalOrders());
+        stats.put("totalRevenue", dashboardCounters.revenue());
+        stats.put("lowStockCount", dashboardCounters.lowStockCount());
         return ResponseEntity.ok(stats);
     }
 
+    // ✨ Live dashboard and shipment-tab counts: a snapshot, then coalesced deltas
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return adminEventStream.subscribe();
+    }
+
     @GetMapping("/low-stock-items")
     public ResponseEntity<List<Product>> getLowStockItems() {
         // Fetches items where stock < 5 for critical alerts
@@ -64,9 +78,7 @@ public class AdminDashboardController {
     @PostMapping("/{orderId}/refund-complete")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Order> completeRefund(@PathVariable String orderId) {
-        Order order = orderRepository.findByOrderId(orderId).orElseThrow();
-        order.setRefundStatus("COMPLETED");
-        order.setStatus("RETURNED"); // Final state
-        return ResponseEntity.ok(orderRepository.save(order));
+        // RETURN_REQUESTED -> RETURNED (final state)
+        return ResponseEntity.ok(orderService.completeRefund(orderId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.yasboss.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yasboss.model.FlashSaleFailure;
+import com.yasboss.service.FlashSaleService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin/flash-sales")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminFlashSaleController {
+
+    private final FlashSaleService flashSaleService;
+
+    // GET /api/admin/flash-sales -> running SKUs, remaining tokens, queue depth
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(flashSaleService.getStatus());
+    }
+
+    // GET /api/admin/flash-sales/failures -> accepted orders that could not be written
+    @GetMapping("/failures")
+    public ResponseEntity<List<FlashSaleFailure>> getFailures() {
+        return ResponseEntity.ok(flashSaleService.getFailures());
+    }
+
+    // ✨ Loads current stockQuantity (minus units still queued) into the in-memory token counter; 409 if already running
+    @PostMapping("/{productId}/start")
+    public ResponseEntity<Map<String, Object>> start(@PathVariable Long productId) {
+        return ResponseEntity.ok(flashSaleService.start(productId));
+    }
+
+    @PostMapping("/{productId}/stop")
+    public ResponseEntity<Map<String, Object>> stop(@PathVariable Long productId) {
+        return ResponseEntity.ok(flashSaleService.stop(productId));
+    }
+}
@@ -0,0 +1,41 @@
+package com.yasboss.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yasboss.config.AdmissionControlFilter;
+import com.yasboss.dto.SalesSeries;
+import com.yasboss.service.SalesTimeSeries;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ✨ Runtime metrics for the admin console (no actuator in this app).
+ */
+@RestController
+@RequestMapping("/api/admin/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class AdminMetricsController {
+
+    private final AdmissionControlFilter admissionControlFilter;
+    private final SalesTimeSeries salesTimeSeries;
+
+    // GET /api/admin/metrics/admission -> limit, in-flight, queued, accepted/rejected per lane
+    @GetMapping("/admission")
+    public ResponseEntity<Map<String, Object>> getAdmissionMetrics() {
+        return ResponseEntity.ok(admissionControlFilter.getMetrics());
+    }
+
+    // GET /api/admin/metrics/sales-series?minutes=180 -> per-minute arrays for live charts (max 48h)
+    @GetMapping("/sales-series")
+    public ResponseEntity<SalesSeries> getSalesSeries(@RequestParam(defaultValue = "180") int minutes) {
+        return ResponseEntity.ok(salesTimeSeries.snapshot(minutes));
+    }
+}
@@ -1,19 +1,25 @@
 package com.yasboss.controller;
 
-import java.util.List;
+import java.time.LocalDate;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.yasboss.model.Order;
-import com.yasboss.repository.OrderRepository;
+import com.yasboss.dto.OrderRowPage;
+import com.yasboss.service.InvoiceExportService;
 import com.yasboss.service.OrderService;
+import com.yasboss.service.OrderStatusService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -23,15 +29,38 @@ import lombok.RequiredArgsConstructor;
 public class AdminOrderController {
 
     private final OrderService orderService;
-    private final OrderRepository orderRepository;
+    private final OrderStatusService orderStatusService;
+    private final InvoiceExportService invoiceExportService;
 
     /**
-     * Admin View: Returns every order in the system, newest first.
+     * Admin View: Keyset-paginated order rows, newest first.
+     * GET /api/admin/orders?status=PAID,PENDING&from=2026-01-01&to=2026-01-31&size=50&cursor=...
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        // Fetching through repository directly for efficiency in the dashboard
-        return ResponseEntity.ok(orderRepository.findAllByOrderByCreatedAtDesc());
+    public ResponseEntity<OrderRowPage> getAllOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrderRows(status, paymentStatus, email, from, to, cursor, size));
+    }
+
+    /**
+     * ✨ Bulk Invoice Export: every invoice issued in the range, streamed as one ZIP.
+     * GET /api/admin/orders/invoices/export?from=2026-01-01&to=2026-01-31
+     */
+    @GetMapping("/invoices/export")
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StreamingResponseBody body = out -> invoiceExportService.exportZip(from, to, out);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"invoices_" + from + "_" + to + ".zip\"")
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .body(body);
     }
 
     /**
@@ -44,14 +73,10 @@ public class AdminOrderController {
             @RequestBody Map<String, String> payload) {
         
         String newStatus = payload.get("status");
-        
-        return orderRepository.findById(orderId)
-            .map(order -> {
-                order.setStatus(newStatus);
-                orderRepository.save(order);
-                // This update will immediately reflect on the user's tracker
-                return ResponseEntity.ok("Order status updated to " + newStatus);
-            })
-            .orElse(ResponseEntity.notFound().build());
+
+        // Validated + compare-and-set; illegal moves and lost races return 409
+        orderStatusService.transition(orderId, newStatus);
+        // This update will immediately reflect on the user's tracker
+        return ResponseEntity.ok("Order status updated to " + newStatus);
     }
 }
\ No newline at end of file
@@ -1,13 +1,28 @@
 package com.yasboss.controller;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.yasboss.dto.ReportJobStatus;
+import com.yasboss.exception.ResourceNotFoundException;
+import com.yasboss.service.ReportJobService;
 import com.yasboss.service.ReportService;
+import com.yasboss.service.SalesRollupService;
 
 @RestController
 @RequestMapping("/api/admin/reports")
@@ -16,41 +31,119 @@ public class AdminReportController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Value("${reports.async-threshold-days:31}")
+    private long asyncThresholdDays;
+
+    // --- 📦 Report Jobs ---
+
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobStatus> submitJob(
+            @RequestParam String type,
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(defaultValue = "csv") String format) {
+        return accepted(reportJobService.submit(type, start, end, format));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobStatus> getJob(@PathVariable String jobId) {
+        return reportJobService.getStatus(jobId)
+            .map(ResponseEntity::ok)
+            .orElseThrow(() -> new ResourceNotFoundException("Report job not found or expired: " + jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<Resource> downloadJobResult(@PathVariable String jobId) {
+        Path file = reportJobService.getResult(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Report is not ready or has expired: " + jobId));
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + reportJobService.fileNameFor(jobId))
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .body(new FileSystemResource(file));
+    }
+
+    // --- 📊 Sales Rollup ---
+
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSalesRollup(
+            @RequestParam String start,
+            @RequestParam String end) {
+        int rows = salesRollupService.rebuild(LocalDate.parse(start), LocalDate.parse(end));
+        return ResponseEntity.ok(Map.of("start", start, "end", end, "rows", rows));
+    }
+
+    private ResponseEntity<ReportJobStatus> accepted(ReportJobStatus status) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .header(HttpHeaders.LOCATION, "/api/admin/reports/jobs/" + status.getJobId())
+            .body(status);
+    }
+
     /**
      * ✨ Multi-Format Report Downloader
      * Handles Excel, PDF, and CSV generation based on user selection.
      */
     @GetMapping("/download")
-    public ResponseEntity<byte[]> downloadReport(
+    public ResponseEntity<?> downloadReport(
             @RequestParam String type,
             @RequestParam String start,
             @RequestParam String end,
-            @RequestParam(defaultValue = "csv") String format) {
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        // ✨ Long ranges become a background job; the client polls and downloads the file
+        if (ChronoUnit.DAYS.between(LocalDate.parse(start), LocalDate.parse(end)) > asyncThresholdDays) {
+            return accepted(reportJobService.submit(type, start, end, format));
+        }
 
-        byte[] content;
+        StreamingResponseBody content;
         String filename = "yasboss_" + type + "_" + start;
         MediaType mediaType;
 
         // 1. Determine Content and Media Type
         switch (format.toLowerCase()) {
             case "excel":
-                content = reportService.generateExcel(type, start, end);
+                // ✨ Rows stream from the DB cursor into the response; nothing is buffered whole
+                content = out -> reportService.writeExcel(type, start, end, out);
                 filename += ".xlsx";
                 mediaType = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
                 break;
 
             case "pdf":
-                content = reportService.generatePdf(type, start, end);
+                // ✨ Pages are written as the cursor advances, not after the whole table is built
+                content = out -> reportService.writePdf(type, start, end, out);
                 filename += ".pdf";
                 mediaType = MediaType.APPLICATION_PDF;
                 break;
 
             case "csv":
             default:
-                String csv = reportService.generateCsv(type, start, end);
-                content = csv.getBytes(StandardCharsets.UTF_8);
+                // ✨ Straight from the DB cursor to the socket; gzip when the client accepts it
+                boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+                content = out -> {
+                    if (gzip) {
+                        try (GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024)) {
+                            reportService.writeCsv(type, start, end, zipped);
+                        }
+                    } else {
+                        reportService.writeCsv(type, start, end, out);
+                    }
+                };
                 filename += ".csv";
-                mediaType = MediaType.TEXT_PLAIN;
+                mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+                if (gzip) {
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                            .contentType(mediaType)
+                            .body(content);
+                }
                 break;
         }
 
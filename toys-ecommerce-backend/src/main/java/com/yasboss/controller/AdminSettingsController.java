@@ -17,6 +17,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.yasboss.model.GlobalSettings;
+import com.yasboss.service.SettingsService;
 
 
 @RestController
@@ -26,6 +27,9 @@ public class AdminSettingsController {
     @Autowired
     private SettingsRepository settingsRepository;
 
+    @Autowired
+    private SettingsService settingsService;
+
     @GetMapping("path")
     public String getMethodName(@RequestParam String param) {
         return new String();
@@ -37,11 +41,9 @@ public class AdminSettingsController {
 
     @PutMapping("/{key}")
     public ResponseEntity<?> updateSetting(@PathVariable String key, @RequestBody Map<String, String> body) {
-        return settingsRepository.findById(key)
-            .map(setting -> {
-                setting.setSettingValue(body.get("settingValue"));
-                settingsRepository.save(setting);
-                return ResponseEntity.ok(setting);
-            }).orElse(ResponseEntity.notFound().build());
+        // Goes through SettingsService so the in-memory snapshot is swapped right away
+        return settingsService.updateSetting(key, body.get("settingValue"))
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
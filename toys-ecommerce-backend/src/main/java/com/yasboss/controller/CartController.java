@@ -13,7 +13,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.yasboss.model.Cart;
+import com.yasboss.dto.CartView;
 import com.yasboss.service.CartService;
 
 import lombok.RequiredArgsConstructor;
@@ -36,13 +36,17 @@ public class CartController {
         
                 log.info("Adding to cart - Product ID: {}, User Email: {}, Body: {}", productId, email, body);
         int quantity = body.getOrDefault("quantity", 1);
-        Cart updatedCart = cartService.addToCart(email, productId, quantity);
-        return ResponseEntity.ok(updatedCart);
+        return ResponseEntity.ok(cartService.addToCart(email, productId, quantity));
     }
 
     @GetMapping
-    public ResponseEntity<Cart> getCart(@RequestHeader("X-User-Email") String email) {
-        return ResponseEntity.ok(cartService.getOrCreateCart(email));
+    public ResponseEntity<CartView> getCart(@RequestHeader("X-User-Email") String email) {
+        return ResponseEntity.ok(cartService.getCart(email));
+    }
+
+    @GetMapping("/breakdown")
+    public ResponseEntity<Map<String, Double>> getPriceBreakdown(@RequestHeader("X-User-Email") String email) {
+        return ResponseEntity.ok(cartService.getPriceBreakdown(email));
     }
 
     @PutMapping("/update-quantity")
@@ -53,13 +57,14 @@ public class CartController {
         Long productId = Long.valueOf(body.get("productId").toString());
         int quantity = Integer.parseInt(body.get("quantity").toString());
         
-        Cart updatedCart = cartService.updateQuantity(email, productId, quantity);
-        return ResponseEntity.ok(updatedCart);
+        return ResponseEntity.ok(cartService.updateQuantity(email, productId, quantity));
     }
 
     @DeleteMapping("/item/{itemId}")
-    public ResponseEntity<?> removeItem(@PathVariable Long itemId) {
-        cartService.removeItem(itemId);
+    public ResponseEntity<?> removeItem(
+            @PathVariable Long itemId,
+            @RequestHeader(value = "X-User-Email", required = false) String email) {
+        cartService.removeItem(itemId, email);
         return ResponseEntity.noContent().build();
     }
     
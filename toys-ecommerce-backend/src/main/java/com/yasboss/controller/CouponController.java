@@ -15,7 +15,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.yasboss.model.Coupon;
-import com.yasboss.repository.CouponRepository;
 import com.yasboss.service.CouponService;
 
 @RestController
@@ -25,9 +24,6 @@ public class CouponController {
     @Autowired
     private CouponService couponService;
 
-    @Autowired
-    private CouponRepository couponRepository;
-
     // --- 🛒 PUBLIC ENDPOINTS (Checkout) ---
 
     /**
@@ -76,20 +72,13 @@ public class CouponController {
 
     @PostMapping
     public ResponseEntity<Coupon> saveCoupon(@RequestBody Coupon coupon) {
-        // If coupon code exists, update it; otherwise, create new
-        return couponRepository.findByCode(coupon.getCode())
-            .map(existing -> {
-                existing.setDiscountPercent(coupon.getDiscountPercent());
-                existing.setExpiryDate(coupon.getExpiryDate());
-                existing.setMinOrderValue(coupon.getMinOrderValue());
-                return ResponseEntity.ok(couponRepository.save(existing));
-            })
-            .orElseGet(() -> ResponseEntity.ok(couponRepository.save(coupon)));
+        // If coupon code exists, update it; otherwise, create new (the service keeps CouponIndex in step)
+        return ResponseEntity.ok(couponService.saveCoupon(coupon));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> delete(@PathVariable Long id) {
-        couponRepository.deleteById(id);
+        couponService.deleteCoupon(id);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.yasboss.event.StockChangedEvent;
 import com.yasboss.model.Product;
 import com.yasboss.repository.ProductRepository;
 
@@ -23,6 +25,9 @@ public class InventoryController {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @GetMapping("/all")
     public List<Product> getAllInventory() {
         return productRepository.findAll();
@@ -46,6 +51,7 @@ public class InventoryController {
             product.setIsFeatured(productDetails.getIsFeatured());
 
             Product updatedProduct = productRepository.save(product);
+            eventPublisher.publishEvent(StockChangedEvent.of(updatedProduct));
             return ResponseEntity.ok(updatedProduct);
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -58,6 +64,7 @@ public class InventoryController {
         return productRepository.findById(id).map(product -> {
             product.setStockQuantity(updates.get("stockQuantity"));
             productRepository.save(product);
+            eventPublisher.publishEvent(StockChangedEvent.of(product));
             return ResponseEntity.ok(product);
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,181 @@
+package com.yasboss.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.yasboss.exception.ResourceNotFoundException;
+import com.yasboss.model.Order;
+import com.yasboss.repository.OrderRepository;
+import com.yasboss.service.InvoiceStore;
+import com.yasboss.service.OrderArchiveService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ✨ Invoice Download
+ * Serves the stored, immutable PDF straight from disk: Tomcat sendfile when the
+ * connector supports it, FileChannel.transferTo otherwise. Supports ETag
+ * revalidation and single byte ranges for resumable downloads.
+ */
+@RestController
+@RequiredArgsConstructor
+public class InvoiceController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final OrderRepository orderRepository;
+    private final InvoiceStore invoiceStore;
+    private final OrderArchiveService orderArchiveService;
+
+    // Customers download their own invoices; the admin path is what the order screens call
+    @GetMapping({"/api/invoices/{id}", "/api/admin/orders/{id}/invoice"})
+    public void downloadInvoice(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Order order = orderRepository.findWithItemsById(id)
+            .or(() -> orderArchiveService.findById(id)) // Old invoices stay downloadable after archiving
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+
+        if (!canView(order)) {
+            response.sendError(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        if (order.getInvoiceNumber() == null) {
+            throw new ResourceNotFoundException("Invoice is issued once payment is completed.");
+        }
+
+        Path file = invoiceStore.getOrRender(order);
+        long length = Files.size(file);
+        // Invoice files never change, so number + size identifies the representation
+        String etag = "\"" + order.getInvoiceNumber() + "-" + length + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"Invoice_" + order.getOrderId() + ".pdf\"");
+        response.setContentLengthLong(count);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the file with sendfile after the request returns (zero-copy)
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
+        }
+    }
+
+    private boolean canView(Order order) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return false;
+        }
+        boolean isAdmin = auth.getAuthorities().stream()
+            .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        return isAdmin || auth.getName().equalsIgnoreCase(order.getUserEmail());
+    }
+
+    /**
+     * Parses a single "bytes=" range. Returns {start, end} (inclusive), an empty
+     * array to ignore the header (multi-range), or null when unsatisfiable.
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return new long[0];
+        }
+        String spec = header.substring(6).trim();
+        if (spec.contains(",")) {
+            return new long[0]; // Multi-range: serve the whole file instead
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String from = spec.substring(0, dash).trim();
+            String to = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (from.isEmpty()) {
+                long suffix = Long.parseLong(to); // "-500" = last 500 bytes
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(from);
+                end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
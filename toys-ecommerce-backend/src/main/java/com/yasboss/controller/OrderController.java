@@ -1,9 +1,11 @@
 package com.yasboss.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,13 +19,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.yasboss.dto.OrderHistoryPage;
 import com.yasboss.dto.OrderRequestDTO;
+import com.yasboss.dto.OrderRowPage;
 import com.yasboss.dto.PaymentRequest;
+import com.yasboss.exception.ConflictException;
 import com.yasboss.model.Order;
-import com.yasboss.repository.CouponRepository;
+import com.yasboss.model.OrderStatus;
 import com.yasboss.repository.OrderRepository;
-import com.yasboss.repository.UserRepository;
+import com.yasboss.service.CouponIndex;
+import com.yasboss.service.FlashSaleService;
+import com.yasboss.service.OrderArchiveService;
+import com.yasboss.service.OrderHistoryService;
 import com.yasboss.service.OrderService;
+import com.yasboss.service.OrderStatusService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,14 +44,23 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderHistoryService orderHistoryService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private OrderStatusService orderStatusService;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CouponIndex couponIndex;
 
     @Autowired
-    private CouponRepository couponRepository;
+    private OrderArchiveService orderArchiveService;
 
     // --- 🛒 CUSTOMER ENDPOINTS ---
 
@@ -51,6 +69,21 @@ public class OrderController {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         try {
             log.info("Processing checkout for user: {}", email);
+
+            // ✨ Flash-sale SKUs: token check in memory, order written by the batch writer
+            if (flashSaleService.isFlashOrder(orderRequest)) {
+                FlashSaleService.Submission submission = flashSaleService.submit(orderRequest);
+                return switch (submission.outcome()) {
+                    case ACCEPTED -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(Map.of("orderId", submission.orderId(), "status", "PENDING"));
+                    case SOLD_OUT -> ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "Sorry, this deal is sold out!"));
+                    case BUSY -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header("Retry-After", "1")
+                        .body(Map.of("message", "Too many orders right now. Please retry."));
+                };
+            }
+
             Order savedOrder = orderService.placeOrder(orderRequest);
             return ResponseEntity.ok(savedOrder);
         } catch (Exception e) {
@@ -65,6 +98,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    /**
+     * ✨ Paginated "My Orders": GET /api/orders/user/{email}/history?page=0&size=10
+     * Only the customer themself (or an admin) may read it; pages are cached per email.
+     */
+    @GetMapping("/user/{email}/history")
+    @PreAuthorize("hasRole('ADMIN') or #email.equalsIgnoreCase(authentication.name)")
+    public ResponseEntity<OrderHistoryPage> getUserOrderHistory(
+            @PathVariable String email,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(orderHistoryService.getHistory(email, page, size));
+    }
+
     @PostMapping("/{orderId}/request-replacement")
     public ResponseEntity<?> requestReplacement(@PathVariable Long orderId) {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -84,8 +130,8 @@ public class OrderController {
      */
     @GetMapping("/coupons/validate/{code}")
     public ResponseEntity<?> validate(@PathVariable String code) {
-        return couponRepository.findByCode(code)
-            .filter(c -> !c.isExpired() && c.isActive())
+        // In-memory index: guessed codes are rejected without a database round trip
+        return couponIndex.find(code)
             .map(coupon -> ResponseEntity.ok((Object) coupon))
             .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                                            .body("Invalid or Expired Coupon"));
@@ -94,19 +140,16 @@ public class OrderController {
     @PostMapping("/process-payment")
     public ResponseEntity<?> processPayment(@RequestBody PaymentRequest request) {
         Order order = orderRepository.findByOrderId(request.getOrderId())
-            .orElseThrow(() -> new RuntimeException("Order Not Found"));
+            .orElseThrow(() -> orderArchiveService.isArchived(request.getOrderId())
+                ? new ConflictException("Order " + request.getOrderId() + " is archived and already settled")
+                : new RuntimeException("Order Not Found"));
 
         if (!order.getTotalAmount().equals(request.getAmount())) {
             return ResponseEntity.badRequest().body("Amount Mismatch");
         }
 
-        order.setStatus("PAID");
-        orderRepository.save(order);
-
-        userRepository.findByEmail(order.getUserEmail()).ifPresent(user -> {
-            user.setRewardPoints(user.getRewardPoints() + (int)(order.getTotalAmount() / 100));
-            userRepository.save(user);
-        });
+        // PAID transition + loyalty points (queued, deduplicated per order)
+        orderService.completeOrderPayment(order.getId());
 
         return ResponseEntity.ok(Map.of("status", "SUCCESS"));
     }
@@ -126,8 +169,24 @@ public class OrderController {
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderRepository.findAllByOrderByCreatedAtDesc());
+    public ResponseEntity<OrderRowPage> getAllOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrderRows(status, paymentStatus, email, from, to, cursor, size));
+    }
+
+    /**
+     * Single order by its "YB-..." reference; also finds orders moved to the archive.
+     */
+    @GetMapping("/lookup/{orderId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Order> getOrderByReference(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderService.getOrderByReference(orderId));
     }
 
     @GetMapping("/admin/replacements/pending")
@@ -142,16 +201,10 @@ public class OrderController {
             @PathVariable Long orderId, 
             @RequestParam String action) {
         
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
-        if ("APPROVE".equalsIgnoreCase(action)) {
-            order.setStatus("REPLACEMENT_APPROVED");
-        } else {
-            order.setStatus("REPLACEMENT_REJECTED");
-        }
-        
-        orderRepository.save(order);
+        OrderStatus target = "APPROVE".equalsIgnoreCase(action)
+            ? OrderStatus.REPLACEMENT_APPROVED
+            : OrderStatus.REPLACEMENT_REJECTED;
+        orderStatusService.transition(orderId, target);
         return ResponseEntity.ok(Map.of("message", "Action " + action + " processed successfully."));
     }
 
@@ -161,10 +214,7 @@ public class OrderController {
         @PathVariable String orderId, 
         @RequestParam String status
     ) {
-        Order order = orderRepository.findByOrderId(orderId)
-            .orElseThrow(() -> new RuntimeException("Order not found"));
-        order.setStatus(status);
-        return ResponseEntity.ok(orderRepository.save(order));
+        return ResponseEntity.ok(orderStatusService.transitionByReference(orderId, OrderStatus.from(status)));
     }
 
     @PutMapping("/{id}/delivered")
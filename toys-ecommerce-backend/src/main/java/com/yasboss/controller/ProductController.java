@@ -9,6 +9,7 @@ import java.nio.file.StandardCopyOption;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.yasboss.dto.ProductDetailDTO;
 import com.yasboss.dto.ProductImageDTO;
+import com.yasboss.event.StockChangedEvent;
 import com.yasboss.model.Product;
 import com.yasboss.repository.CategoryRepository;
 import com.yasboss.repository.ProductRepository;
@@ -46,6 +48,9 @@ public class ProductController {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CategoryRepository categoryRepository;
     // --- 🔍 SEARCH & FILTERING ---
@@ -147,7 +152,9 @@ public class ProductController {
                 product.setCategory(category);
             } */
 
-            return ResponseEntity.ok(productRepository.save(product));
+            Product saved = productRepository.save(product);
+            eventPublisher.publishEvent(StockChangedEvent.of(saved));
+            return ResponseEntity.ok(saved);
         }).orElse(ResponseEntity.notFound().build());
     }
 
@@ -8,7 +8,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
-import com.yasboss.repository.OrderRepository;
+import com.yasboss.model.OrderStatus;
+import com.yasboss.service.OrderService;
 
 @RestController
 @RequestMapping("/api/webhooks/shiprocket")
@@ -16,7 +17,7 @@ import com.yasboss.repository.OrderRepository;
 public class ShipRocketWebhookController {
 
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
 
     @PostMapping("/update-status")
     public ResponseEntity<?> handleShiprocketUpdate(@RequestBody Map<String, Object> payload) {
@@ -28,14 +29,15 @@ public class ShipRocketWebhookController {
             
             log.info("Webhook received: AWB {} is now {}", awbCode, newStatus);
 
-            // 2. Find the order in our database using the AWB/Tracking ID
-            orderRepository.findByTrackingId(awbCode).ifPresent(order -> {
-                // 3. Map Shiprocket statuses to your local statuses
-                String mappedStatus = mapShiprocketStatus(newStatus);
-                order.setStatus(mappedStatus);
-                orderRepository.save(order);
-                log.info("Order {} status updated to {}", order.getOrderId(), mappedStatus);
-            });
+            // 2. Map Shiprocket statuses to your local statuses
+            OrderStatus mappedStatus = mapShiprocketStatus(newStatus);
+            if (mappedStatus == null) {
+                log.info("Ignoring unmapped Shiprocket status {} for AWB {}", newStatus, awbCode);
+                return ResponseEntity.ok().build();
+            }
+
+            // 3. Apply through the state machine (stale/out-of-order events are ignored)
+            orderService.applyCarrierStatus(awbCode, mappedStatus);
 
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -44,13 +46,13 @@ public class ShipRocketWebhookController {
         }
     }
 
-    private String mapShiprocketStatus(String srStatus) {
+    private OrderStatus mapShiprocketStatus(String srStatus) {
         return switch (srStatus.toLowerCase()) {
-            case "shipped", "in transit" -> "SHIPPED";
-            case "delivered" -> "DELIVERED";
-            case "cancelled" -> "CANCELLED";
-            case "out for delivery" -> "DISPATCHED";
-            default -> "PENDING";
+            case "shipped", "in transit" -> OrderStatus.SHIPPED;
+            case "delivered" -> OrderStatus.DELIVERED;
+            case "cancelled" -> OrderStatus.CANCELLED;
+            case "out for delivery" -> OrderStatus.DISPATCHED;
+            default -> null; // Unknown events no longer reset orders to PENDING
         };
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.yasboss.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ One line of a CartView with just the product card fields.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineView {
+    @JsonIgnore
+    private Long cartId; // Only used to build the CartView around the lines
+
+    private Long id;
+    private Integer quantity;
+    private Product product;
+
+    /**
+     * Flat constructor for the JPQL projection in CartRepository#findViewRowsByUserEmail.
+     * An empty cart comes back as a single row with a null line id.
+     */
+    public CartLineView(Long cartId, Long id, Integer quantity, Long productId, String name, Double price,
+                        Double sellingPrice, String imageUrl, Integer stockQuantity, String category) {
+        this(cartId, id, quantity,
+            new Product(productId, name, price, sellingPrice, imageUrl, stockQuantity, category));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Product {
+        private Long id;
+        private String name;
+        private Double price;
+        private Double sellingPrice;
+        private String imageUrl;
+        private Integer stockQuantity;
+        private String category;
+    }
+}
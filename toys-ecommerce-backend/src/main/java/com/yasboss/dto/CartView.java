@@ -0,0 +1,20 @@
+package com.yasboss.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ Slim cart payload: same shape the storefront already reads
+ * ({@code id}, {@code items[].product.*}) without the user, roles or product descriptions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartView {
+    private Long id;
+    private List<CartLineView> items = new ArrayList<>();
+}
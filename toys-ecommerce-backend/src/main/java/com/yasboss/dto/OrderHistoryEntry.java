@@ -0,0 +1,38 @@
+package com.yasboss.dto;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ Customer-facing order summary for the "My Orders" page.
+ * Built from a JPQL constructor expression; items are attached in a second query.
+ */
+@Data
+@NoArgsConstructor
+public class OrderHistoryEntry {
+    private Long id;
+    private String orderId;
+    private String status;
+    private String paymentStatus;
+    private Double totalAmount;
+    private String shippingAddress;
+    private String trackingId;
+    private Date createdAt;
+    private List<OrderHistoryLine> items = new ArrayList<>();
+
+    public OrderHistoryEntry(Long id, String orderId, String status, String paymentStatus, Double totalAmount,
+                             String shippingAddress, String trackingId, Date createdAt) {
+        this.id = id;
+        this.orderId = orderId;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.totalAmount = totalAmount;
+        this.shippingAddress = shippingAddress;
+        this.trackingId = trackingId;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,25 @@
+package com.yasboss.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ One purchased toy inside a customer's order history entry.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryLine {
+    @JsonIgnore
+    private Long orderDbId; // Only used to group lines under their order
+
+    private Long id;
+    private Long productId;
+    private String productName;
+    private Double price;
+    private Integer quantity;
+    private String imageUrl;
+}
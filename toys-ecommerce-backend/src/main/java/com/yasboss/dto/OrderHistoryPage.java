@@ -0,0 +1,17 @@
+package com.yasboss.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderHistoryPage {
+    private List<OrderHistoryEntry> items;
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
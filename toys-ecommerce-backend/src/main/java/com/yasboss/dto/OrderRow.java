@@ -0,0 +1,29 @@
+package com.yasboss.dto;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ Admin list row
+ * Flat projection of the orders table only: no items, no user, no TEXT columns.
+ * Filled by a JPQL constructor expression, so field order matches the query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRow {
+    private Long id;
+    private String orderId;
+    private String userEmail;
+    private String customerPhone;
+    private Double totalAmount;
+    private String status;
+    private String paymentStatus;
+    private String paymentMethod;
+    private String refundStatus;
+    private String trackingId;
+    private Date createdAt;
+}
@@ -0,0 +1,24 @@
+package com.yasboss.dto;
+
+import java.util.Date;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Admin order list filters plus the keyset position (createdAt, id) of the
+ * last row already shown. Null fields are simply not applied.
+ */
+@Data
+@Builder
+public class OrderRowFilter {
+    private List<String> statuses; // any of
+    private String paymentStatus;
+    private String email;
+    private Date createdFrom; // inclusive
+    private Date createdTo;   // exclusive
+
+    private Date afterCreatedAt;
+    private Long afterId;
+}
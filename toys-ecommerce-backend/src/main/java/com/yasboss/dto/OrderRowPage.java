@@ -0,0 +1,16 @@
+package com.yasboss.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRowPage {
+    private List<OrderRow> items;
+    private String nextCursor; // Pass back as ?cursor= to fetch the next page; null on the last page
+    private boolean hasMore;
+}
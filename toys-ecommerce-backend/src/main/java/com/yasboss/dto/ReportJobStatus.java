@@ -0,0 +1,28 @@
+package com.yasboss.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ Poll response for an asynchronous report job.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobStatus {
+    private String jobId;
+    private String type;
+    private String start;
+    private String end;
+    private String format;
+    private String status; // QUEUED, RUNNING, DONE, FAILED
+    private long bytesWritten; // Progress: row counts aren't known up front for cursor exports
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+    private String error;
+    private String downloadUrl; // Set once DONE
+}
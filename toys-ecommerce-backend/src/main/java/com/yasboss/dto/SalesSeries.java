@@ -0,0 +1,21 @@
+package com.yasboss.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ✨ Compact chart series: parallel arrays, one entry per bucket.
+ * Bucket i starts at {@code startEpochMillis + i * stepSeconds * 1000}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSeries {
+    private long startEpochMillis;
+    private int stepSeconds;
+    private long[] orders;
+    private long[] items;
+    private double[] revenue;
+    private long[] cancellations;
+}
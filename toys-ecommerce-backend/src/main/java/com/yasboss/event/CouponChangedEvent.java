@@ -0,0 +1,9 @@
+package com.yasboss.event;
+
+/**
+ * ✨ Published when an admin creates, edits or deletes a coupon, so the
+ * in-memory CouponIndex is rebuilt after the change commits.
+ */
+public record CouponChangedEvent(
+        String code) {
+}
@@ -0,0 +1,41 @@
+package com.yasboss.event;
+
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
+import com.yasboss.model.OrderStatus;
+
+/**
+ * ✨ Published whenever an order is created or changes status.
+ * {@code previousStatus} is null for a freshly placed order.
+ * {@code itemCount} (units) is only filled on placement, when the lines are in hand.
+ * Listeners that touch caches or counters should run AFTER_COMMIT.
+ */
+public record OrderStatusChangedEvent(
+        Long orderDbId,
+        String orderId,
+        String userEmail,
+        OrderStatus previousStatus,
+        OrderStatus newStatus,
+        Double totalAmount,
+        int itemCount) {
+
+    public static OrderStatusChangedEvent placed(Order order) {
+        int units = 0;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                units += item.getQuantity() != null ? item.getQuantity() : 0;
+            }
+        }
+        return new OrderStatusChangedEvent(order.getId(), order.getOrderId(), order.getUserEmail(),
+            null, OrderStatus.from(order.getStatus()), order.getTotalAmount(), units);
+    }
+
+    public static OrderStatusChangedEvent transitioned(Order order, OrderStatus from, OrderStatus to) {
+        return new OrderStatusChangedEvent(order.getId(), order.getOrderId(), order.getUserEmail(),
+            from, to, order.getTotalAmount(), 0);
+    }
+
+    public boolean isNewOrder() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.yasboss.event;
+
+/**
+ * ✨ Published when an order's lines are added to (positive {@code revenueDelta})
+ * or removed from (negative) the daily sales rollup.
+ */
+public record SalesRollupChangedEvent(
+        Long orderDbId,
+        double revenueDelta) {
+}
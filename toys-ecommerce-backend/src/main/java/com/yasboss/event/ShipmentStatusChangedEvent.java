@@ -0,0 +1,10 @@
+package com.yasboss.event;
+
+/**
+ * ✨ Published when a carrier sync moves a shipment to a new status.
+ */
+public record ShipmentStatusChangedEvent(
+        String waybillNumber,
+        String previousStatus,
+        String newStatus) {
+}
@@ -0,0 +1,26 @@
+package com.yasboss.event;
+
+import com.yasboss.model.Product;
+
+/**
+ * ✨ Published whenever a product's stock quantity is written, the product is
+ * created, or it is deleted ({@code deleted} true, {@code stockQuantity} null).
+ * Carries the new absolute quantity, so replaying an event is harmless.
+ */
+public record StockChangedEvent(
+        Long productId,
+        Integer stockQuantity,
+        boolean deleted) {
+
+    public static StockChangedEvent of(Product product) {
+        return new StockChangedEvent(product.getId(), product.getStockQuantity(), false);
+    }
+
+    public static StockChangedEvent of(Long productId, Integer stockQuantity) {
+        return new StockChangedEvent(productId, stockQuantity, false);
+    }
+
+    public static StockChangedEvent deleted(Long productId) {
+        return new StockChangedEvent(productId, null, true);
+    }
+}
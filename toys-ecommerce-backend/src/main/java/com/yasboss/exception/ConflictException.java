@@ -0,0 +1,17 @@
+package com.yasboss.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ✨ Raised when a request clashes with the current state of a resource
+ * (e.g., starting a flash sale that is already running).
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
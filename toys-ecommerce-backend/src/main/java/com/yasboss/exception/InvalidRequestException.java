@@ -0,0 +1,17 @@
+package com.yasboss.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ✨ Raised for malformed client input such as a bad paging cursor or date range.
+ * Only this is mapped to 400; an IllegalArgumentException from our own code is a bug (500).
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.yasboss.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * ✨ Raised when an order is moved to a status its current status does not allow,
+ * or when a concurrent update keeps winning the compare-and-set.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class InvalidStatusTransitionException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidStatusTransitionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.yasboss.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * ✨ Cold Order Storage
+ * One row per archived order: the full order (with items) as gzip-compressed
+ * JSON, plus the few columns lookups need. Written by OrderArchiveService.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = {
+    @Index(name = "idx_archived_orders_order_id", columnList = "order_id", unique = true),
+    @Index(name = "idx_archived_orders_user_email", columnList = "user_email")
+})
+@Data
+public class ArchivedOrder {
+    @Id
+    private Long id; // Same value as the original orders.id
+
+    @Column(nullable = false)
+    private String orderId; // Format: YB-123456789
+
+    private String userEmail;
+    private String status;
+    private LocalDateTime orderDate;
+    private String archiveMonth; // e.g., "2025-03", month of the original order date
+    private LocalDateTime archivedAt;
+
+    @Column(columnDefinition = "bytea", nullable = false)
+    private byte[] payload; // gzip(JSON of Order with items)
+}
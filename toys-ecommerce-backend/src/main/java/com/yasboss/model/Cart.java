@@ -4,10 +4,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
@@ -16,17 +19,22 @@ import lombok.Data;
 
 @Entity
 @Data
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+    @Index(name = "idx_carts_user_email", columnList = "user_email", unique = true) // Cart reads skip the users table
+})
 public class Cart {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @Column(name = "user_email")
+    private String userEmail; // Copy of user.email, backfilled by CartService on startup
+
     // ✨ orphanRemoval = true ensures deleted items are purged from DB
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
@@ -0,0 +1,60 @@
+package com.yasboss.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * ✨ Daily Sales Rollup
+ * One row per (day, HSN code, GST rate, category) holding the totals of every
+ * order counted as a sale that day. Maintained incrementally by SalesRollupService;
+ * reports and the admin dashboard read this instead of scanning order lines.
+ */
+@Entity
+@Table(name = "daily_sales_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_daily_sales_rollup_key", columnNames = {"sale_date", "hsn_code", "tax_rate", "category"})
+})
+@Data
+public class DailySalesRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private String hsnCode; // '' when the product has none
+
+    @Column(nullable = false, precision = 5, scale = 2)
+    private BigDecimal taxRate; // Total GST %, split equally into CGST and SGST
+
+    @Column(nullable = false)
+    private String category; // '' when the product has none
+
+    private long orderCount;
+    private long quantity;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal taxableValue;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal cgst;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal sgst;
+
+    @Column(precision = 14, scale = 2)
+    private BigDecimal revenue; // Taxable value + CGST + SGST
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.yasboss.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * ✨ Flash Sale Dead Letter
+ * An order that was accepted (202) but could not be written even on its own.
+ * Kept with its full request so support can contact the customer or re-enter it.
+ */
+@Entity
+@Table(name = "flash_sale_failures")
+@Data
+public class FlashSaleFailure {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String orderId; // The YB- reference the customer was given
+
+    private String userEmail;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON snapshot of the order and its lines
+
+    @Column(length = 1000)
+    private String error;
+
+    private boolean resolved = false;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -13,18 +13,27 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"), // Admin list keyset
+    @Index(name = "idx_orders_status", columnList = "status"),
+    @Index(name = "idx_orders_user_email", columnList = "user_email"),
+    @Index(name = "idx_orders_order_date", columnList = "order_date") // GST report range, archiver cutoff
+})
 @Data
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -32,7 +41,12 @@ public class Order {
 
     private String userEmail;
     private Double totalAmount;
-    private String status = "PENDING";
+    private String status = "PENDING"; // See OrderStatus for the allowed transitions
+
+    // ✨ Optimistic lock: concurrent admin/webhook writes fail instead of overwriting each other
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 
     @Column(columnDefinition = "TEXT")
     private String shippingAddress;
@@ -0,0 +1,112 @@
+package com.yasboss.model;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.yasboss.exception.InvalidStatusTransitionException;
+
+/**
+ * ✨ Order Lifecycle
+ * Order.status is still stored as a plain string; this enum is the single
+ * source of truth for which moves between those strings are legal.
+ * Spellings written before the state machine existed (CANCELED, IN_TRANSIT,
+ * lower case, ...) are read through {@link #ALIASES}.
+ */
+public enum OrderStatus {
+    PENDING,
+    PAID,
+    PROCESSING, // Admin is packing it; the admin dropdown offers it between Pending and Ready to Ship
+    DISPATCHED,
+    SHIPPED,
+    OUT_FOR_DELIVERY,
+    DELIVERED,
+    CANCELLED,
+    RETURN_REQUESTED,
+    RETURNED,
+    REPLACEMENT_REQUESTED,
+    REPLACEMENT_APPROVED,
+    REPLACEMENT_REJECTED;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(PAID, PROCESSING, DISPATCHED, SHIPPED, CANCELLED)); // COD orders ship unpaid
+        TRANSITIONS.put(PAID, EnumSet.of(PROCESSING, DISPATCHED, SHIPPED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED));
+        // PAID: an online payment confirmed after the admin started packing
+        TRANSITIONS.put(PROCESSING, EnumSet.of(PAID, DISPATCHED, SHIPPED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED));
+        TRANSITIONS.put(DISPATCHED, EnumSet.of(SHIPPED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED));
+        TRANSITIONS.put(SHIPPED, EnumSet.of(DISPATCHED, OUT_FOR_DELIVERY, DELIVERED, CANCELLED)); // ShipRocket maps OFD to DISPATCHED
+        TRANSITIONS.put(OUT_FOR_DELIVERY, EnumSet.of(DELIVERED, CANCELLED));
+        TRANSITIONS.put(DELIVERED, EnumSet.of(RETURN_REQUESTED, REPLACEMENT_REQUESTED));
+        TRANSITIONS.put(RETURN_REQUESTED, EnumSet.of(RETURNED, DELIVERED)); // DELIVERED = return rejected
+        TRANSITIONS.put(RETURNED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+        TRANSITIONS.put(REPLACEMENT_REQUESTED, EnumSet.of(REPLACEMENT_APPROVED, REPLACEMENT_REJECTED));
+        TRANSITIONS.put(REPLACEMENT_APPROVED, EnumSet.of(DISPATCHED, SHIPPED, DELIVERED));
+        TRANSITIONS.put(REPLACEMENT_REJECTED, EnumSet.noneOf(OrderStatus.class));
+    }
+
+    // Counted as a sale in reports: paid (or shipped as COD) and not cancelled or returned
+    private static final Set<OrderStatus> SALES = EnumSet.of(
+        PAID, PROCESSING, DISPATCHED, SHIPPED, OUT_FOR_DELIVERY, DELIVERED,
+        RETURN_REQUESTED, REPLACEMENT_REQUESTED, REPLACEMENT_APPROVED, REPLACEMENT_REJECTED);
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    public boolean isSale() {
+        return SALES.contains(this);
+    }
+
+    public static List<String> saleStatusNames() {
+        return SALES.stream().map(Enum::name).toList();
+    }
+
+    // Legacy and frontend spellings, after upper-casing and turning spaces/hyphens into underscores
+    private static final Map<String, OrderStatus> ALIASES = Map.of(
+        "CANCELED", CANCELLED,
+        "PENDING_PAYMENT", PENDING,
+        "CONFIRMED", PAID,
+        "READY_TO_SHIP", DISPATCHED,
+        "IN_TRANSIT", SHIPPED,
+        "COMPLETED", DELIVERED);
+
+    /**
+     * Parses a status string (case-insensitive, aliases accepted); empty if unrecognised.
+     */
+    public static Optional<OrderStatus> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        String key = value.trim().toUpperCase().replace(' ', '_').replace('-', '_');
+        try {
+            return Optional.of(OrderStatus.valueOf(key));
+        } catch (IllegalArgumentException e) {
+            return Optional.ofNullable(ALIASES.get(key));
+        }
+    }
+
+    /**
+     * Parses a user-supplied status; anything unrecognised is rejected.
+     */
+    public static OrderStatus from(String value) {
+        if (value == null || value.isBlank()) {
+            throw new InvalidStatusTransitionException("Order status is required");
+        }
+        return parse(value).orElseThrow(() -> new InvalidStatusTransitionException("Unknown order status: " + value));
+    }
+
+    /**
+     * Reads a status already stored on an order for counting and display. Free-text
+     * values saved before the state machine are read as PENDING; transitions use
+     * {@link #parse} instead and refuse such values.
+     */
+    public static OrderStatus fromStored(String value) {
+        return parse(value).orElse(PENDING);
+    }
+}
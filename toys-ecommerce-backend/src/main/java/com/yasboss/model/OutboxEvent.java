@@ -0,0 +1,56 @@
+package com.yasboss.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * ✨ Transactional Outbox Row
+ * Written in the same transaction as the order change; drained by OutboxDispatcher.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+@Data
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String eventType; // e.g., "ORDER_CONFIRMATION_EMAIL", "POINTS_CREDIT"
+
+    private String aggregateId; // DB id of the order the effect belongs to
+
+    // Same key enqueued twice is stored once, so retried requests never duplicate an effect
+    @Column(unique = true, nullable = false)
+    private String dedupeKey;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON map of handler arguments
+
+    private String status = "PENDING"; // PENDING, PROCESSING, DONE, FAILED
+
+    private int attempts = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil; // Lease; expired PROCESSING rows are picked up again
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime processedAt;
+}
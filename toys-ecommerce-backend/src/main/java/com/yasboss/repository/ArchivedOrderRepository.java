@@ -0,0 +1,28 @@
+package com.yasboss.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.yasboss.model.ArchivedOrder;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    Optional<ArchivedOrder> findByOrderId(String orderId);
+
+    List<ArchivedOrder> findByUserEmailOrderByOrderDateDesc(String userEmail);
+
+    boolean existsByOrderId(String orderId);
+
+    // Continues a customer's history past their live orders, so the offset is arbitrary
+    @Query(value = "SELECT * FROM archived_orders WHERE user_email = :email " +
+                   "ORDER BY order_date DESC, id DESC OFFSET :offset LIMIT :limit", nativeQuery = true)
+    List<ArchivedOrder> findHistoryPage(@Param("email") String email,
+                                        @Param("offset") long offset,
+                                        @Param("limit") int limit);
+}
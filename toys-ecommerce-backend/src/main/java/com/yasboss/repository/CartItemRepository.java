@@ -1,6 +1,10 @@
 package com.yasboss.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.yasboss.model.CartItem;
@@ -11,4 +15,7 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
      * Handles persistence for individual items inside the cart.
      * Standard methods like deleteById and save are inherited from JpaRepository.
      */
+
+    @Query("SELECT i.cart.userEmail FROM CartItem i WHERE i.id = :itemId")
+    Optional<String> findCartEmailById(@Param("itemId") Long itemId);
 }
\ No newline at end of file
@@ -1,15 +1,35 @@
 package com.yasboss.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.yasboss.dto.CartLineView;
 import com.yasboss.model.Cart;
-import com.yasboss.model.User;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
-    // ✨ Finds the cart belonging to a specific user object
-    Optional<Cart> findByUser(User user);
-}
\ No newline at end of file
+
+    Optional<Cart> findByUserEmail(String userEmail);
+
+    /**
+     * ✨ The whole cart in one query: cart, lines and product card fields,
+     * without touching users or loading full Product rows.
+     */
+    @Query("SELECT new com.yasboss.dto.CartLineView(c.id, i.id, i.quantity, p.id, p.name, p.price, " +
+           "p.sellingPrice, p.imageUrl, p.stockQuantity, p.category) " +
+           "FROM Cart c LEFT JOIN c.items i LEFT JOIN i.product p " +
+           "WHERE c.userEmail = :email ORDER BY i.id")
+    List<CartLineView> findViewRowsByUserEmail(@Param("email") String email);
+
+    // Carts created before user_email existed
+    @Modifying
+    @Query(value = "UPDATE carts c SET user_email = u.email FROM users u " +
+                   "WHERE u.id = c.user_id AND c.user_email IS NULL", nativeQuery = true)
+    int backfillUserEmails();
+}
@@ -4,7 +4,9 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.yasboss.model.Coupon;
@@ -42,4 +44,27 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
     List<Coupon> findByExpiryDateBefore(java.time.LocalDateTime now);
 
     Optional<Coupon> findByCode(String code);
+
+    @Query("SELECT c.usedCount FROM Coupon c WHERE c.id = :id")
+    Optional<Integer> findUsedCountById(@Param("id") Long id);
+
+    /**
+     * ⚡ Atomic Redemption
+     * Takes one slot of a limited coupon only while it is under its limit; concurrent
+     * checkouts queue on the row lock and re-check the condition, so usedCount can
+     * never pass usageLimit. Returns 1 if the slot was won.
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 " +
+           "WHERE c.id = :id AND c.active = true " +
+           "AND c.usageLimit IS NOT NULL AND c.usedCount < c.usageLimit")
+    int redeemIfUnderLimit(@Param("id") Long id);
+
+    /**
+     * Gives a slot back (order never persisted). Returns 0 for unlimited coupons.
+     */
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount - 1 " +
+           "WHERE c.code = :code AND c.usageLimit IS NOT NULL AND c.usedCount > 0")
+    int releaseLimited(@Param("code") String code);
 }
\ No newline at end of file
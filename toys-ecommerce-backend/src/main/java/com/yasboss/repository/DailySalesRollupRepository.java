@@ -0,0 +1,108 @@
+package com.yasboss.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.yasboss.model.DailySalesRollup;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, Long> {
+
+    // Per order and rollup key: money is rounded per order, so incremental and rebuilt totals agree to the paisa
+    String ORDER_GROUPS = "SELECT o.id AS order_db_id, " +
+           "CAST(COALESCE(o.order_date, o.created_at) AS date) AS sale_date, " +
+           "COALESCE(p.hsn_code, '') AS hsn_code, COALESCE(p.category, '') AS category, " +
+           "SUM(oi.quantity) AS quantity, " +
+           "ROUND(CAST(SUM(oi.quantity * oi.price) AS numeric), 2) AS taxable_value " +
+           "FROM orders o " +
+           "JOIN order_items oi ON oi.order_db_id = o.id " +
+           "LEFT JOIN products p ON p.id = oi.product_id ";
+
+    // GST % of a group: its GST_RATE_<hsn> override if one is set, else the default TAX_PERCENTAGE (as PricingEngine)
+    String GROUP_RATE = "COALESCE(CAST(CAST(:hsnRates AS jsonb) ->> g.hsn_code AS numeric), CAST(:defaultRate AS numeric))";
+
+    String ROLLUP_COLUMNS = "INSERT INTO daily_sales_rollup " +
+           "(sale_date, hsn_code, tax_rate, category, order_count, quantity, taxable_value, cgst, sgst, revenue, updated_at) ";
+
+    /**
+     * ✨ Adds ({@code sign} = 1) or removes ({@code sign} = -1) one order's lines
+     * from its day's rollup rows in a single upsert. {@code hsnRates} is a JSON
+     * object of HSN code to GST % (e.g. {"9503": 12}).
+     */
+    @Modifying
+    @Query(value = ROLLUP_COLUMNS +
+           "SELECT g.sale_date, g.hsn_code, " + GROUP_RATE + ", g.category, :sign, " +
+           ":sign * g.quantity, :sign * g.taxable_value, " +
+           ":sign * ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2), " +
+           ":sign * ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2), " +
+           ":sign * (g.taxable_value + 2 * ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2)), now() " +
+           "FROM (" + ORDER_GROUPS + "WHERE o.id = :orderDbId GROUP BY 1, 2, 3, 4) g " +
+           "ON CONFLICT (sale_date, hsn_code, tax_rate, category) DO UPDATE SET " +
+           "order_count = daily_sales_rollup.order_count + EXCLUDED.order_count, " +
+           "quantity = daily_sales_rollup.quantity + EXCLUDED.quantity, " +
+           "taxable_value = daily_sales_rollup.taxable_value + EXCLUDED.taxable_value, " +
+           "cgst = daily_sales_rollup.cgst + EXCLUDED.cgst, " +
+           "sgst = daily_sales_rollup.sgst + EXCLUDED.sgst, " +
+           "revenue = daily_sales_rollup.revenue + EXCLUDED.revenue, " +
+           "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int applyOrder(@Param("orderDbId") Long orderDbId, @Param("sign") int sign,
+                   @Param("hsnRates") String hsnRates, @Param("defaultRate") double defaultRate);
+
+    /**
+     * Recomputes every rollup row for sale days in [from, to) from the live order tables.
+     * Callers delete the range first, in the same transaction.
+     */
+    @Modifying
+    @Query(value = ROLLUP_COLUMNS +
+           "SELECT g.sale_date, g.hsn_code, " + GROUP_RATE + ", g.category, COUNT(*), " +
+           "SUM(g.quantity), SUM(g.taxable_value), " +
+           "SUM(ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2)), " +
+           "SUM(ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2)), " +
+           "SUM(g.taxable_value + 2 * ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2)), now() " +
+           "FROM (" + ORDER_GROUPS +
+           "WHERE o.status IN (:statuses) " +
+           "AND COALESCE(o.order_date, o.created_at) >= :from AND COALESCE(o.order_date, o.created_at) < :to " +
+           "GROUP BY 1, 2, 3, 4) g " +
+           "GROUP BY g.sale_date, g.hsn_code, g.category", nativeQuery = true)
+    int rebuildRange(@Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to,
+                     @Param("statuses") List<String> statuses,
+                     @Param("hsnRates") String hsnRates,
+                     @Param("defaultRate") double defaultRate);
+
+    // Revenue one order contributes to the rollup, rounded exactly as applyOrder rounds it
+    @Query(value = "SELECT COALESCE(SUM(g.taxable_value + 2 * ROUND(g.taxable_value * " + GROUP_RATE + " / 200, 2)), 0) " +
+           "FROM (" + ORDER_GROUPS + "WHERE o.id = :orderDbId GROUP BY 1, 2, 3, 4) g", nativeQuery = true)
+    BigDecimal orderRevenue(@Param("orderDbId") Long orderDbId,
+                            @Param("hsnRates") String hsnRates, @Param("defaultRate") double defaultRate);
+
+    @Modifying
+    @Query(value = "DELETE FROM daily_sales_rollup WHERE sale_date >= :from AND sale_date < :to", nativeQuery = true)
+    int deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Holds back incremental upserts until a rebuild commits, so neither overwrites the other
+    @Modifying
+    @Query(value = "LOCK TABLE daily_sales_rollup IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    List<DailySalesRollup> findBySaleDateBetweenOrderBySaleDateAscHsnCodeAscCategoryAsc(LocalDate start, LocalDate end);
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM DailySalesRollup r")
+    BigDecimal sumRevenue();
+
+    @Query("SELECT COALESCE(SUM(r.revenue), 0) FROM DailySalesRollup r WHERE r.saleDate >= :from AND r.saleDate < :to")
+    BigDecimal sumRevenueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Earliest sale day still in the live order tables, for the first backfill
+    @Query(value = "SELECT MIN(CAST(COALESCE(o.order_date, o.created_at) AS date)) FROM orders o " +
+           "WHERE o.status IN (:statuses)", nativeQuery = true)
+    LocalDate findFirstSaleDate(@Param("statuses") List<String> statuses);
+}
@@ -0,0 +1,16 @@
+package com.yasboss.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.yasboss.model.FlashSaleFailure;
+
+@Repository
+public interface FlashSaleFailureRepository extends JpaRepository<FlashSaleFailure, Long> {
+
+    List<FlashSaleFailure> findByResolvedFalseOrderByCreatedAtDesc();
+
+    long countByResolvedFalse();
+}
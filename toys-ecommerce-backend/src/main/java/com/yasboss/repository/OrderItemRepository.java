@@ -1,10 +1,14 @@
 package com.yasboss.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.yasboss.dto.OrderHistoryLine;
 import com.yasboss.model.OrderItem;
 
 @Repository
@@ -12,4 +16,10 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     // Fetches all individual toy records for a specific transaction ID
     List<OrderItem> findByOrderId(Long orderId);
+
+    // Second step of the order history load: all lines for one page of orders
+    @Query("SELECT new com.yasboss.dto.OrderHistoryLine(oi.order.id, oi.id, oi.productId, oi.productName, " +
+           "oi.price, oi.quantity, oi.imageUrl) " +
+           "FROM OrderItem oi WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderHistoryLine> findHistoryLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
\ No newline at end of file
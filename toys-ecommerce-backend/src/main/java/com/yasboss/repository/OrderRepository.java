@@ -3,16 +3,37 @@ package com.yasboss.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.yasboss.dto.OrderHistoryEntry;
 import com.yasboss.model.Order;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+import jakarta.persistence.QueryHint;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
     
+    // Items come back in the same query, so rendering the list doesn't lazy-load per order
+    @EntityGraph(attributePaths = "items")
     List<Order> findByUserEmailOrderByCreatedAtDesc(String email);
 
+    @Query("SELECT new com.yasboss.dto.OrderHistoryEntry(o.id, o.orderId, o.status, o.paymentStatus, " +
+           "o.totalAmount, o.shippingAddress, o.trackingId, o.createdAt) " +
+           "FROM Order o WHERE o.userEmail = :email ORDER BY o.createdAt DESC, o.id DESC")
+    Slice<OrderHistoryEntry> findHistoryByUserEmail(@Param("email") String email, Pageable pageable);
+
+    long countByUserEmail(String userEmail);
+
     List<Order> findByStatus(String status);
 
     // FIX: Changed from findAllByOrderByDateDesc to findAllByOrderByCreatedAtDesc
@@ -20,12 +41,18 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     Optional<Order> findByOrderId(String orderId);
 
-    @Query("SELECT SUM(o.totalAmount) FROM Order o")
-    Double getTotalRevenue();
-
     // FIX: Count orders based on their status (PENDING, SHIPPED, etc.)
     long countByStatus(String status);
 
+    // ✨ One pass for every status; DashboardCounters reconciles against this
+    @Query("SELECT o.status AS status, COUNT(o) AS count FROM Order o GROUP BY o.status")
+    List<StatusCount> countGroupedByStatus();
+
+    interface StatusCount {
+        String getStatus();
+        long getCount();
+    }
+
     List<Order> findByCustomerPhoneOrderByOrderDateDesc(String phone);
 
     @Query(value = "SELECT o.id as orderId, o.order_date as orderDate, u.full_name as customerName, " +
@@ -41,6 +68,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
            "WHERE o.order_date BETWEEN :startDate AND :endDate", nativeQuery = true)
     List<GstReportProjection> findGstReportData(LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * ✨ Same rows as findGstReportData, read through a forward-only cursor.
+     * Must be consumed (and closed) inside a read-only transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT o.id as orderId, o.order_date as orderDate, u.full_name as customerName, " +
+           "p.name as productName, p.hsn_code as hsnCode, oi.quantity as quantity, oi.price as unitPrice, " +
+           "(oi.quantity * oi.price) as taxableValue, " +
+           "((oi.quantity * oi.price) * 0.09) as cgst, " +
+           "((oi.quantity * oi.price) * 0.09) as sgst, " +
+           "(oi.quantity * oi.price * 1.18) as totalAmount " +
+           "FROM orders o " +
+           "JOIN users u ON o.user_id = u.id " +
+           "JOIN order_items oi ON o.id = oi.order_db_id " +
+           "JOIN products p ON oi.product_id = p.id " +
+           "WHERE o.order_date BETWEEN :startDate AND :endDate " +
+           "ORDER BY o.order_date, o.id", nativeQuery = true)
+    Stream<GstReportProjection> streamGstReportData(@Param("startDate") LocalDateTime startDate,
+                                                    @Param("endDate") LocalDateTime endDate);
+
     // Projection Interface to map result columns
     interface GstReportProjection {
         Long getOrderId();
@@ -60,5 +110,48 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     public List<Order> findByStatusIn(List<String> statuses);
 
+    @Query("SELECT o.id FROM Order o WHERE o.orderId = :orderId")
+    Optional<Long> findIdByOrderId(@Param("orderId") String orderId);
+
+    @Query("SELECT o.id FROM Order o WHERE o.trackingId = :trackingId")
+    Optional<Long> findIdByTrackingId(@Param("trackingId") String trackingId);
+
+    /**
+     * ✨ Archive candidates: finished orders placed before {@code cutoff}, oldest first.
+     * Bounded on order_date, so on a partitioned table only the old partitions are scanned.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.OrderDate < :cutoff AND o.status IN :statuses ORDER BY o.OrderDate, o.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("statuses") List<String> statuses,
+                                 Pageable pageable);
+
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(List<Long> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.invoiceNumber IS NOT NULL " +
+           "AND o.invoiceDate >= :from AND o.invoiceDate < :to ORDER BY o.invoiceDate, o.id")
+    List<Long> findInvoicedIdsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Invoice rendering runs outside a transaction, so the items must come with the order
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<String> findStatusById(@Param("id") Long id);
+
+    /**
+     * ✨ Compare-and-set status change.
+     * Single statement, no row lock held across the request; returns 0 when
+     * another writer moved the order first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1 " +
+           "WHERE o.id = :id AND o.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id, @Param("expected") String expected, @Param("next") String next);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :next, o.version = o.version + 1 WHERE o.status = :stored")
+    int renameStatus(@Param("stored") String stored, @Param("next") String next);
+
 
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.yasboss.repository;
+
+import java.util.List;
+
+import com.yasboss.dto.OrderRow;
+import com.yasboss.dto.OrderRowFilter;
+
+/**
+ * Hand-written queries for OrderRepository that Spring Data cannot derive.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * Keyset page of admin list rows ordered by (createdAt, id) descending.
+     */
+    List<OrderRow> findOrderRows(OrderRowFilter filter, int limit);
+}
@@ -0,0 +1,74 @@
+package com.yasboss.repository;
+
+import java.util.List;
+
+import com.yasboss.dto.OrderRow;
+import com.yasboss.dto.OrderRowFilter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * ✨ Dynamic admin list query.
+ * Only the filters that are present end up in the WHERE clause, so every
+ * combination stays index-friendly instead of relying on ":param IS NULL OR ...".
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderRow> findOrderRows(OrderRowFilter filter, int limit) {
+        StringBuilder jpql = new StringBuilder(
+            "SELECT new com.yasboss.dto.OrderRow(o.id, o.orderId, o.userEmail, o.customerPhone, o.totalAmount, " +
+            "o.status, o.paymentStatus, o.paymentMethod, o.refundStatus, o.trackingId, o.createdAt) " +
+            "FROM Order o WHERE 1 = 1");
+
+        if (filter.getStatuses() != null) {
+            jpql.append(" AND o.status IN :statuses");
+        }
+        if (filter.getPaymentStatus() != null) {
+            jpql.append(" AND o.paymentStatus = :paymentStatus");
+        }
+        if (filter.getEmail() != null) {
+            jpql.append(" AND o.userEmail = :email");
+        }
+        if (filter.getCreatedFrom() != null) {
+            jpql.append(" AND o.createdAt >= :createdFrom");
+        }
+        if (filter.getCreatedTo() != null) {
+            jpql.append(" AND o.createdAt < :createdTo");
+        }
+        if (filter.getAfterCreatedAt() != null && filter.getAfterId() != null) {
+            // Keyset: strictly "older" than the last row of the previous page
+            jpql.append(" AND (o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<OrderRow> query = entityManager.createQuery(jpql.toString(), OrderRow.class);
+
+        if (filter.getStatuses() != null) {
+            query.setParameter("statuses", filter.getStatuses());
+        }
+        if (filter.getPaymentStatus() != null) {
+            query.setParameter("paymentStatus", filter.getPaymentStatus());
+        }
+        if (filter.getEmail() != null) {
+            query.setParameter("email", filter.getEmail());
+        }
+        if (filter.getCreatedFrom() != null) {
+            query.setParameter("createdFrom", filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            query.setParameter("createdTo", filter.getCreatedTo());
+        }
+        if (filter.getAfterCreatedAt() != null && filter.getAfterId() != null) {
+            query.setParameter("afterCreatedAt", filter.getAfterCreatedAt());
+            query.setParameter("afterId", filter.getAfterId());
+        }
+
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.yasboss.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.yasboss.model.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    boolean existsByDedupeKey(String dedupeKey);
+
+    /**
+     * ✨ Claim Query
+     * Locks due events (and PROCESSING rows whose lease expired after a crash).
+     * SKIP LOCKED lets several nodes drain the outbox without blocking each other.
+     */
+    @Query(value = "SELECT * FROM outbox_events " +
+                   "WHERE (status = 'PENDING' AND next_attempt_at <= :now) " +
+                   "OR (status = 'PROCESSING' AND locked_until < :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(String status);
+
+    /**
+     * Acknowledges an event only while this worker still holds it. Returns 0 when a
+     * rollup rebuild (or another node after a lease expiry) has already closed it.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET status = 'DONE', locked_until = NULL, last_error = NULL, processed_at = now() " +
+                   "WHERE id = :id AND status = 'PROCESSING'",
+           nativeQuery = true)
+    int completeIfProcessing(@Param("id") Long id);
+
+    /**
+     * Marks open events of {@code eventType} for orders dated in [from, to) as DONE,
+     * for when a rebuild has already recomputed their effect from the orders themselves.
+     */
+    @Modifying
+    @Query(value = "UPDATE outbox_events SET status = 'DONE', locked_until = NULL, processed_at = now() " +
+                   "WHERE event_type = :eventType AND status IN ('PENDING', 'PROCESSING', 'FAILED') " +
+                   "AND CAST(aggregate_id AS bigint) IN (SELECT o.id FROM orders o " +
+                   "WHERE COALESCE(o.order_date, o.created_at) >= :from AND COALESCE(o.order_date, o.created_at) < :to)",
+           nativeQuery = true)
+    int supersedeOrderEvents(@Param("eventType") String eventType,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+}
@@ -1,9 +1,11 @@
 package com.yasboss.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,6 +16,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Custom method to fetch products marked as featured
     List<Product> findByIsFeaturedTrue(); 
 
+    // ✨ Flash sale write-behind: one UPDATE per SKU per batch instead of one per order
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id")
+    int decrementStockQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
     List<Product> findByCategoryIgnoreCase(String category);
 
     List<Product> findByAgeRangeIgnoreCase(String ageRange);
@@ -26,6 +33,23 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     long countByStockLessThan(int threshold);
 
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    @Query("SELECT p.id FROM Product p WHERE p.stockQuantity < :threshold")
+    List<Long> findIdsByStockQuantityLessThan(@Param("threshold") int threshold);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    // [id, hsn_code] pairs for per-HSN tax in PricingEngine
+    @Query("SELECT p.id, p.hsn_code FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findHsnCodesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // [id, unit price (selling price, else list price), hsn_code, name, imageUrl] for order lines in PricingEngine
+    @Query("SELECT p.id, COALESCE(p.sellingPrice, p.price), p.hsn_code, p.name, p.imageUrl FROM Product p WHERE p.id IN :ids")
+    List<Object[]> findPricingByIdIn(@Param("ids") Collection<Long> ids);
+
     List<Product> findByStockLessThan(int threshold);
 
     @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold")
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.yasboss.model.ShipmentTracking;
@@ -19,4 +20,13 @@ public interface ShipmentTrackingRepository extends JpaRepository<ShipmentTracki
     
     // Check if a shipment already exists for an order
     Optional<ShipmentTracking> findByOrderId(String orderId);
+
+    // Tab bubble counts in one grouped query instead of loading every shipment
+    @Query("SELECT s.status AS status, COUNT(s) AS count FROM ShipmentTracking s GROUP BY s.status")
+    List<StatusCount> countGroupedByStatus();
+
+    interface StatusCount {
+        String getStatus();
+        long getCount();
+    }
 }
\ No newline at end of file
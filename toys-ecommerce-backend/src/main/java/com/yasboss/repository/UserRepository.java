@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.yasboss.model.User;
@@ -23,6 +25,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Boolean existsByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
     List<User> findTop10ByOrderByRewardPointsDesc();
 
 }
\ No newline at end of file
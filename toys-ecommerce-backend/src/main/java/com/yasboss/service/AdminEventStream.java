@@ -0,0 +1,248 @@
+package com.yasboss.service;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.event.SalesRollupChangedEvent;
+import com.yasboss.event.ShipmentStatusChangedEvent;
+import com.yasboss.event.StockChangedEvent;
+import com.yasboss.model.OrderStatus;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * ✨ Admin Live Updates (Server-Sent Events)
+ * Admin tabs hold one SSE connection instead of polling /summary and
+ * /shipments/counts. Connections are async servlet requests, so an idle tab costs
+ * a socket and no thread. Domain events only raise a dirty flag; a single frame
+ * task runs at most once per {@code admin.events.frame-interval-ms}, builds each
+ * changed section once (dashboard from DashboardCounters, shipment counts from one
+ * grouped query) and sends only the keys that changed to every tab.
+ * The writes themselves run on one dedicated sender thread, so a slow tab blocks
+ * neither the shared scheduler nor the next frame's bookkeeping; one thread keeps
+ * each tab's deltas in order.
+ */
+@Service
+@Slf4j
+public class AdminEventStream {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final DashboardCounters dashboardCounters;
+    private final ShipmentService shipmentService;
+
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor sender;
+    private final AtomicBoolean dashboardDirty = new AtomicBoolean(true);
+    private final AtomicBoolean shipmentsDirty = new AtomicBoolean(true);
+
+    // Last values sent, so frames carry deltas; guarded by this
+    private Map<String, Object> lastDashboard = Map.of();
+    private Map<String, Object> lastShipments = Map.of();
+    private long lastSentAt = System.currentTimeMillis();
+
+    @Value("${admin.events.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${admin.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${admin.events.heartbeat-ms:20000}")
+    private long heartbeatMs;
+
+    public AdminEventStream(DashboardCounters dashboardCounters, ShipmentService shipmentService,
+                            @Value("${admin.events.send-queue-capacity:50}") int sendQueueCapacity) {
+        this.dashboardCounters = dashboardCounters;
+        this.shipmentService = shipmentService;
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sendQueueCapacity),
+            new ThreadFactoryBuilder().setNameFormat("admin-events-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Registers a tab. The first frame is a full snapshot; later frames are deltas.
+     * The browser reconnects on its own once {@code admin.events.timeout-ms} passes.
+     */
+    public SseEmitter subscribe() {
+        if (emitters.size() >= maxConnections) {
+            throw new RejectedExecutionException("Too many live admin connections");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Same lock as the frame task: the snapshot is exactly what the next delta is based on
+        synchronized (this) {
+            if (lastDashboard.isEmpty()) {
+                lastDashboard = dashboardSnapshot();
+            }
+            if (lastShipments.isEmpty()) {
+                lastShipments = shipmentSnapshot();
+            }
+            try {
+                emitter.send(SseEmitter.event().name("dashboard").data(MAPPER.writeValueAsString(lastDashboard)));
+                emitter.send(SseEmitter.event().name("shipments").data(MAPPER.writeValueAsString(lastShipments)));
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+                return emitter;
+            }
+            emitters.add(emitter);
+        }
+        return emitter;
+    }
+
+    // --- 📥 Change Feed (flags only; the frame task does the work) ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        dashboardDirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSalesRollupChanged(SalesRollupChangedEvent event) {
+        dashboardDirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        dashboardDirty.set(true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onShipmentStatusChanged(ShipmentStatusChangedEvent event) {
+        shipmentsDirty.set(true);
+    }
+
+    // --- 📤 Frames ---
+
+    @Scheduled(fixedDelayString = "${admin.events.frame-interval-ms:2000}")
+    public synchronized void pushFrame() {
+        if (emitters.isEmpty()) {
+            return; // Flags stay raised, so the first frame after someone connects catches up
+        }
+
+        // Tabs that subscribe after this point got a snapshot that already includes this frame
+        List<SseEmitter> targets = List.copyOf(emitters);
+        boolean sent = false;
+        if (dashboardDirty.getAndSet(false)) {
+            Map<String, Object> current = dashboardSnapshot();
+            sent |= broadcast(targets, "dashboard", delta(lastDashboard, current));
+            lastDashboard = current;
+        }
+        if (shipmentsDirty.getAndSet(false)) {
+            Map<String, Object> current = shipmentSnapshot();
+            sent |= broadcast(targets, "shipments", delta(lastShipments, current));
+            lastShipments = current;
+        }
+
+        long now = System.currentTimeMillis();
+        if (sent) {
+            lastSentAt = now;
+        } else if (now - lastSentAt >= heartbeatMs) {
+            // Comment line: keeps proxies from closing an idle stream, ignored by EventSource
+            sendToAll(targets, () -> SseEmitter.event().comment("ping"));
+            lastSentAt = now;
+        }
+    }
+
+    private boolean broadcast(List<SseEmitter> targets, String name, Map<String, Object> delta) {
+        if (delta.isEmpty()) {
+            return false;
+        }
+        // Serialized once for every tab, not once per connection
+        String json = MAPPER.writeValueAsString(delta);
+        sendToAll(targets, () -> SseEmitter.event().name(name).data(json));
+        return true;
+    }
+
+    /**
+     * Hands the writes to the sender thread. If it has fallen a whole queue behind,
+     * the frame cannot be dropped (deltas build on each other), so the tabs are
+     * closed instead and reconnect to a fresh snapshot.
+     */
+    private void sendToAll(List<SseEmitter> targets, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            sender.execute(() -> send(targets, event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Admin event sender is {} frames behind, closing {} streams", sender.getQueue().size(), targets.size());
+            targets.forEach(emitter -> {
+                emitters.remove(emitter);
+                emitter.complete();
+            });
+        }
+    }
+
+    // Builders are single-use (build() appends the terminator), hence one per emitter
+    private void send(List<SseEmitter> targets, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (SseEmitter emitter : targets) {
+            if (!emitters.contains(emitter)) {
+                continue;
+            }
+            try {
+                emitter.send(event.get());
+            } catch (IOException | IllegalStateException e) {
+                // Tab closed or timed out; the completion callback may not have run yet
+                emitters.remove(emitter);
+                log.debug("Dropping admin event stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Map<String, Object> delta(Map<String, Object> previous, Map<String, Object> current) {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        current.forEach((key, value) -> {
+            if (!Objects.equals(previous.get(key), value)) {
+                changed.put(key, value);
+            }
+        });
+        return changed;
+    }
+
+    private Map<String, Object> dashboardSnapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("totalProducts", dashboardCounters.totalProducts());
+        snapshot.put("lowStockCount", dashboardCounters.lowStockCount());
+        snapshot.put("totalRevenue", dashboardCounters.revenue());
+        snapshot.put("totalOrders", dashboardCounters.totalOrders());
+        snapshot.put("pendingOrders", dashboardCounters.ordersWithStatus(OrderStatus.PENDING));
+        snapshot.put("ordersByStatus", dashboardCounters.ordersByStatus());
+        return snapshot;
+    }
+
+    private Map<String, Object> shipmentSnapshot() {
+        return new LinkedHashMap<>(shipmentService.getStatusCounts());
+    }
+
+    public int connectionCount() {
+        return emitters.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
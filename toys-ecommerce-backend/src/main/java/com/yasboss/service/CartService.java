@@ -1,21 +1,24 @@
 package com.yasboss.service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.yasboss.dto.CartLineView;
+import com.yasboss.dto.CartView;
 import com.yasboss.model.Cart;
 import com.yasboss.model.CartItem;
 import com.yasboss.model.Product;
-import com.yasboss.model.User;
 import com.yasboss.repository.CartItemRepository;
 import com.yasboss.repository.CartRepository;
 import com.yasboss.repository.ProductRepository;
-import com.yasboss.repository.SettingsRepository;
 import com.yasboss.repository.UserRepository;
+import com.yasboss.service.CartStateStore.CartState;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,87 +32,145 @@ public class CartService {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final SettingsRepository settingsRepository;
+    private final PricingEngine pricingEngine;
+    private final CartStateStore cartStateStore;
+
+    /**
+     * ✨ Cart reads come from the in-memory CartStateStore; the database is only
+     * read when a cart is not cached yet (see {@link #loadCart}).
+     */
+    public CartView getCart(String email) {
+        return cartStateStore.get(email, this::loadCart).toView();
+    }
 
-    @Transactional
-    public Cart getOrCreateCart(String email) {
-        User user = userRepository.findByEmail(email)
+    /**
+     * One projection query keyed on carts.user_email.
+     * The User row is only touched (as a reference) when the cart has to be created.
+     */
+    private CartView loadCart(String email) {
+        List<CartLineView> rows = cartRepository.findViewRowsByUserEmail(email);
+        if (rows.isEmpty()) {
+            return new CartView(createCart(email).getId(), new ArrayList<>());
+        }
+        CartView view = new CartView(rows.get(0).getCartId(), new ArrayList<>(rows.size()));
+        for (CartLineView row : rows) {
+            if (row.getId() != null) { // LEFT JOIN row of an empty cart
+                view.getItems().add(row);
+            }
+        }
+        return view;
+    }
+
+    private Cart createCart(String email) {
+        Long userId = userRepository.findIdByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found with email: " + email));
+        Cart newCart = new Cart();
+        newCart.setUser(userRepository.getReferenceById(userId));
+        newCart.setUserEmail(email);
+        return cartRepository.save(newCart);
+    }
+
+    /**
+     * Another unit of a toy already in the bag is an in-memory change flushed later;
+     * a new toy is inserted right away so its line has a real id for removal.
+     */
+    public CartView addToCart(String email, Long productId, int quantity) {
+        CartState state = stateWithLine(email, productId);
 
-        return cartRepository.findByUser(user)
-                .orElseGet(() -> {
-                    Cart newCart = new Cart();
-                    newCart.setUser(user);
-                    return cartRepository.save(newCart);
-                });
+        // ✨ THE FILTER: Checks if this specific toy is already in the bag
+        synchronized (state) {
+            CartLineView line = state.line(productId);
+            if (line != null) {
+                state.addQuantity(line, quantity);
+                cartStateStore.markDirty(state);
+            } else {
+                state.addLine(insertLine(state.getCartId(), productId, quantity));
+            }
+        }
+        return state.toView();
     }
 
-    @Transactional
-    public Cart addToCart(String email, Long productId, int quantity) {
-        Cart cart = getOrCreateCart(email);
+    private CartLineView insertLine(Long cartId, Long productId, int quantity) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
-        // ✨ THE FILTER: Checks if this specific toy is already in the bag
-        Optional<CartItem> existingItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            cartItemRepository.save(item);
-        } else {
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(quantity);
-            cartItemRepository.save(newItem);
-            cart.getItems().add(newItem);
+        CartItem newItem = new CartItem();
+        newItem.setCart(cartRepository.getReferenceById(cartId));
+        newItem.setProduct(product);
+        newItem.setQuantity(quantity);
+        CartItem saved = cartItemRepository.save(newItem);
+
+        return new CartLineView(cartId, saved.getId(), quantity, new CartLineView.Product(
+            product.getId(), product.getName(), product.getPrice(), product.getSellingPrice(),
+            product.getImageUrl(), product.getStockQuantity(), product.getCategory()));
+    }
+
+    /**
+     * +/- clicks: applied in memory and coalesced into one batched UPDATE per flush.
+     */
+    public CartView updateQuantity(String email, Long productId, int quantity) {
+        CartState state = stateWithLine(email, productId);
+
+        // ✨ THE FILTER: Finds the product to change its quantity
+        CartLineView line = state.line(productId);
+        if (line == null) {
+            throw new RuntimeException("Item not found in cart");
         }
 
-        return cartRepository.save(cart);
+        state.setQuantity(line, quantity);
+        cartStateStore.markDirty(state);
+        return state.toView();
+    }
+
+    /**
+     * The cached state, re-read once when it has no line for {@code productId}:
+     * the line may have been added through another node after this one cached the cart.
+     */
+    private CartState stateWithLine(String email, Long productId) {
+        CartState state = cartStateStore.get(email, this::loadCart);
+        if (state.line(productId) == null) {
+            cartStateStore.invalidate(email);
+            state = cartStateStore.get(email, this::loadCart);
+        }
+        return state;
     }
 
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
-    public Cart updateQuantity(String email, Long productId, int quantity) {
-        Cart cart = getOrCreateCart(email);
-        
-        // ✨ THE FILTER: Finds the product to change its quantity
-        CartItem cartItem = cart.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Item not found in cart"));
-
-        cartItem.setQuantity(quantity);
-        cartItemRepository.save(cartItem);
-        
-        return cartRepository.save(cart);
+    public void backfillUserEmails() {
+        int updated = cartRepository.backfillUserEmails();
+        if (updated > 0) {
+            log.info("Backfilled user_email on {} carts", updated);
+        }
     }
 
     @Transactional
-    public void removeItem(Long itemId) {
+    public void removeItem(Long itemId, String email) {
+        // Older clients send no email header; the owning cart is looked up instead
+        String owner = email != null ? email : cartItemRepository.findCartEmailById(itemId).orElse(null);
+        if (owner != null) {
+            CartState state = cartStateStore.getIfPresent(owner);
+            if (state != null) {
+                state.removeLine(itemId);
+            }
+        }
         cartItemRepository.deleteById(itemId);
     }
 
-    public Map<String, Double> getPriceBreakdown(double subtotal) {
-        // Fetch dynamic settings
-        double taxRate = Double.parseDouble(
-            settingsRepository.findById("TAX_PERCENTAGE").map(s -> s.getSettingValue()).orElse("18.0")
-        );
-        double threshold = Double.parseDouble(
-            settingsRepository.findById("FREE_DELIVERY_THRESHOLD").map(s -> s.getSettingValue()).orElse("500.0")
-        );
-
-        double taxAmount = (subtotal * taxRate) / 100;
-        double shipping = subtotal >= threshold ? 0.0 : 49.0;
-        double total = subtotal + taxAmount + shipping;
-
-        return Map.of(
-            "subtotal", subtotal,
-            "tax", taxAmount,
-            "shipping", shipping,
-            "total", total
-        );
+    /**
+     * Cart totals from the shared PricingEngine, so checkout charges what the cart shows.
+     */
+    public Map<String, Double> getPriceBreakdown(String email) {
+        CartView cart = getCart(email);
+        List<Long> productIds = cart.getItems().stream().map(line -> line.getProduct().getId()).toList();
+        Map<Long, String> hsnCodes = pricingEngine.hsnCodesFor(productIds);
+
+        PricingEngine.Calculation pricing = pricingEngine.start();
+        for (CartLineView line : cart.getItems()) {
+            CartLineView.Product product = line.getProduct();
+            Double unitPrice = product.getSellingPrice() != null ? product.getSellingPrice() : product.getPrice();
+            pricing.addLine(unitPrice, line.getQuantity(), hsnCodes.get(product.getId()));
+        }
+        return pricing.finish(null).toBreakdown();
     }
 }
\ No newline at end of file
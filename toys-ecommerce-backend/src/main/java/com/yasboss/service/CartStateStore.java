@@ -0,0 +1,247 @@
+package com.yasboss.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.yasboss.dto.CartLineView;
+import com.yasboss.dto.CartView;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Write-Behind Cart State
+ * Keeps each active shopper's cart in memory so +/- clicks are applied without a
+ * transaction. Quantity changes only mark the line dirty; the flush task writes the
+ * latest quantity of every dirty line in one JDBC batch, so ten rapid clicks become
+ * one UPDATE. Adding a new product and removing a line are written through by
+ * CartService (they create or delete rows and are rare).
+ * Pending quantities are flushed on the interval, on checkout, when an entry is
+ * evicted or expires, and on shutdown. A crash loses at most the changes of the
+ * last {@code cart.state.flush-interval-ms}.
+ * State is per node and needs no sticky sessions: CartService re-reads a cart
+ * whose cached copy lacks the product being changed (another node added it),
+ * a flushed line whose row is gone (another node removed it) is dropped, and
+ * {@code cart.state.ttl-minutes} bounds how long other differences last.
+ */
+@Service
+@Slf4j
+public class CartStateStore {
+
+    private static final String UPDATE_QUANTITY = "UPDATE cart_items SET quantity = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, CartState> states;
+    private final Set<String> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    public CartStateStore(
+            JdbcTemplate jdbcTemplate,
+            @Value("${cart.state.max-users:10000}") long maxUsers,
+            @Value("${cart.state.ttl-minutes:10}") long ttlMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.states = Caffeine.newBuilder()
+            .maximumSize(maxUsers)
+            // Bounds how stale product prices and stock on a cached cart can get
+            .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+            // Runs inside the eviction, so a reload can never read rows older than the evicted state
+            .evictionListener((String email, CartState state, RemovalCause cause) -> {
+                if (state != null) {
+                    flush(List.of(state));
+                }
+            })
+            .build();
+    }
+
+    /**
+     * The cached state for {@code email}, loaded from the database on first use.
+     */
+    public CartState get(String email, Function<String, CartView> loader) {
+        return states.get(email, key -> new CartState(key, loader.apply(key)));
+    }
+
+    public CartState getIfPresent(String email) {
+        return states.getIfPresent(email);
+    }
+
+    /**
+     * Drops a cached cart after its rows were changed outside this store; pending
+     * quantities are written first so nothing is lost.
+     */
+    public void invalidate(String email) {
+        flush(email);
+        states.invalidate(email);
+    }
+
+    public void markDirty(CartState state) {
+        if (states.getIfPresent(state.email) != state) {
+            flush(List.of(state)); // Evicted while this click was applied; write it now
+            return;
+        }
+        dirtyUsers.add(state.email);
+    }
+
+    // --- 💾 Flushing ---
+
+    @Scheduled(fixedDelayString = "${cart.state.flush-interval-ms:2000}")
+    public void flushDirty() {
+        if (dirtyUsers.isEmpty()) {
+            return;
+        }
+        List<CartState> pending = new ArrayList<>();
+        for (String email : dirtyUsers) {
+            dirtyUsers.remove(email);
+            CartState state = states.getIfPresent(email);
+            if (state != null) {
+                pending.add(state);
+            }
+        }
+        flush(pending);
+    }
+
+    /**
+     * Writes {@code email}'s pending quantities now (checkout reads cart_items directly).
+     */
+    public void flush(String email) {
+        CartState state = states.getIfPresent(email);
+        if (state != null) {
+            flush(List.of(state));
+        }
+    }
+
+    /**
+     * One batch for all given carts. Serialized so an older snapshot can never
+     * overwrite a newer one; on failure the lines are marked dirty again.
+     */
+    private synchronized void flush(List<CartState> pending) {
+        List<Object[]> batch = new ArrayList<>();
+        Map<CartState, Map<Long, Integer>> drained = new HashMap<>();
+        for (CartState state : pending) {
+            Map<Long, Integer> changes = state.drainDirty();
+            if (!changes.isEmpty()) {
+                drained.put(state, changes);
+                changes.forEach((itemId, quantity) -> batch.add(new Object[] { quantity, itemId }));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_QUANTITY, batch);
+            dropDeletedLines(drained, batch, updated);
+            log.debug("Flushed {} cart lines for {} carts", batch.size(), drained.size());
+        } catch (RuntimeException e) {
+            log.warn("Cart flush failed for {} lines, retrying next interval: {}", batch.size(), e.getMessage());
+            drained.forEach((state, changes) -> {
+                state.restoreDirty(changes);
+                dirtyUsers.add(state.email);
+            });
+        }
+    }
+
+    // Rows removed through another node match nothing; forget them here too
+    private void dropDeletedLines(Map<CartState, Map<Long, Integer>> drained, List<Object[]> batch, int[] updated) {
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Long itemId = (Long) batch.get(i)[1];
+                drained.forEach((state, changes) -> {
+                    if (changes.containsKey(itemId)) {
+                        state.removeLine(itemId);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush(new ArrayList<>(states.asMap().values()));
+    }
+
+    // --- 🛒 Per-User State ---
+
+    /**
+     * One shopper's cart. All access is synchronized on the instance; lines keep
+     * the database order (by item id) and new lines are appended.
+     */
+    public static class CartState {
+        private final String email;
+        private final Long cartId;
+        private final Map<Long, CartLineView> linesByProduct = new LinkedHashMap<>();
+        private final Map<Long, Integer> dirtyQuantities = new HashMap<>(); // item id -> latest quantity
+
+        CartState(String email, CartView view) {
+            this.email = email;
+            this.cartId = view.getId();
+            for (CartLineView line : view.getItems()) {
+                linesByProduct.put(line.getProduct().getId(), line);
+            }
+        }
+
+        public Long getCartId() {
+            return cartId;
+        }
+
+        public synchronized CartLineView line(Long productId) {
+            return linesByProduct.get(productId);
+        }
+
+        public synchronized void setQuantity(CartLineView line, int quantity) {
+            line.setQuantity(quantity);
+            dirtyQuantities.put(line.getId(), quantity);
+        }
+
+        public synchronized void addQuantity(CartLineView line, int delta) {
+            setQuantity(line, line.getQuantity() + delta);
+        }
+
+        public synchronized void addLine(CartLineView line) {
+            linesByProduct.put(line.getProduct().getId(), line);
+        }
+
+        public synchronized void removeLine(Long itemId) {
+            linesByProduct.values().removeIf(line -> line.getId().equals(itemId));
+            dirtyQuantities.remove(itemId);
+        }
+
+        /**
+         * Copies the lines so the response is not mutated while Jackson writes it.
+         */
+        public synchronized CartView toView() {
+            List<CartLineView> items = new ArrayList<>(linesByProduct.size());
+            for (CartLineView line : linesByProduct.values()) {
+                items.add(new CartLineView(line.getCartId(), line.getId(), line.getQuantity(), line.getProduct()));
+            }
+            return new CartView(cartId, items);
+        }
+
+        synchronized Map<Long, Integer> drainDirty() {
+            if (dirtyQuantities.isEmpty()) {
+                return Map.of();
+            }
+            Map<Long, Integer> changes = new HashMap<>(dirtyQuantities);
+            dirtyQuantities.clear();
+            return changes;
+        }
+
+        // A click that landed after the failed drain wins
+        synchronized void restoreDirty(Map<Long, Integer> changes) {
+            changes.forEach(dirtyQuantities::putIfAbsent);
+        }
+    }
+}
@@ -1,17 +1,19 @@
 package com.yasboss.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.yasboss.dto.OrderRequest;
+import com.yasboss.event.OrderStatusChangedEvent;
 import com.yasboss.model.CartItem;
 import com.yasboss.model.Order;
 import com.yasboss.model.OrderItem;
-import com.yasboss.repository.OrderItemRepository;
 import com.yasboss.repository.OrderRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -21,7 +23,8 @@ import lombok.RequiredArgsConstructor;
 public class CheckoutService {
 
     private final OrderRepository orderRepository;
-    private final OrderItemRepository orderItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PricingEngine pricingEngine;
 
     /**
      * Processes the checkout request from the React frontend.
@@ -37,35 +40,47 @@ public class CheckoutService {
         order.setOrderId(friendlyOrderId);
         
         order.setUserEmail(request.getUserEmail());
-        order.setTotalAmount(request.getTotalAmount());
         order.setShippingAddress(request.getShippingAddress());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setStatus("PENDING");
+        order.setOrderDate(LocalDateTime.now()); // Partition / archive key
 
-        // 2. Save the parent Order first to generate the DB primary key
-        Order savedOrder = orderRepository.save(order);
-
-        // 3. Convert CartItems from the request into OrderItem snapshots
+        // 2. Convert CartItems from the request into OrderItem snapshots
         List<OrderItem> orderItems = new ArrayList<>();
+        PricingEngine.Catalog catalog = pricingEngine.catalogFor(
+            request.getItems().stream().map(CartItem::getId).toList());
+        PricingEngine.Calculation pricing = pricingEngine.start();
         
         for (CartItem cartItem : request.getItems()) {
             OrderItem orderItem = new OrderItem();
             
-            // Map the snapshotted data from the frontend
+            // Name and image are snapshotted from the frontend; the price comes from the catalog
             orderItem.setProductId(cartItem.getId());
             orderItem.setProductName(cartItem.getName());
-            orderItem.setPrice(cartItem.getPrice());
+            orderItem.setPrice(catalog.unitPrice(cartItem.getId()));
             orderItem.setQuantity(cartItem.getQuantity());
             orderItem.setImageUrl(cartItem.getImageUrl());
             
             // Set the bidirectional relationship
-            orderItem.setOrder(savedOrder);
+            orderItem.setOrder(order);
             
             orderItems.add(orderItem);
+            pricing.addLine(orderItem.getPrice(), orderItem.getQuantity(), catalog.hsnCode(orderItem.getProductId()));
         }
 
-        // 4. Save all order items to the database
-        orderItemRepository.saveAll(orderItems);
+        // Catalog prices only: neither the item prices nor request.totalAmount are trusted
+        PricingEngine.Quote quote = pricing.finish(null);
+        order.setTotalAmount(quote.total());
+        order.setGstAmount(quote.tax());
+        order.setCgst(quote.cgst());
+        order.setSgst(quote.sgst());
+        order.setPointsToEarn(quote.pointsToEarn());
+
+        // 3. ✨ Save the order and its items in one flush.
+        // Ids come from pooled sequences, so Hibernate sends the items as a single JDBC batch.
+        order.setItems(orderItems);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.placed(saved));
 
         return friendlyOrderId;
     }
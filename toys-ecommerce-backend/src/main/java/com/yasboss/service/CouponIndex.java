@@ -0,0 +1,136 @@
+package com.yasboss.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.yasboss.event.CouponChangedEvent;
+import com.yasboss.model.Coupon;
+import com.yasboss.repository.CouponRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Active Coupon Index
+ * Every active, unexpired coupon as an immutable {@link ActiveCoupon}, so checkout
+ * validation is a map lookup. A Bloom filter over the same codes sits in front: a
+ * guessed code is turned away by a few bit probes, without touching the map or
+ * the database. The index is rebuilt whole and swapped atomically after admin
+ * changes, at midnight (when coupons expire) and on
+ * {@code coupons.index-refresh-interval-ms} so other nodes converge.
+ * Usage counts change on every order and are not indexed; limited coupons still
+ * read their count (see CouponService#validateCoupon).
+ */
+@Service
+@Slf4j
+public class CouponIndex {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Checkout view of a coupon. {@code lastValidEpochDay} is the expiry date as an
+     * epoch day (Long.MAX_VALUE when it never expires).
+     */
+    public record ActiveCoupon(
+            Long id,
+            String code,
+            int discountPercent,
+            double minOrderValue,
+            long lastValidEpochDay,
+            Integer usageLimit) {
+
+        static ActiveCoupon of(Coupon coupon) {
+            return new ActiveCoupon(coupon.getId(), coupon.getCode(), coupon.getDiscountPercent(),
+                coupon.getMinOrderValue(),
+                coupon.getExpiryDate() != null ? coupon.getExpiryDate().toEpochDay() : Long.MAX_VALUE,
+                coupon.getUsageLimit());
+        }
+
+        public boolean isValidOn(long epochDay) {
+            return epochDay <= lastValidEpochDay;
+        }
+    }
+
+    private record Snapshot(Map<String, ActiveCoupon> byCode, BloomFilter<CharSequence> codes) {}
+
+    private final CouponRepository couponRepository;
+
+    private volatile Snapshot snapshot;
+
+    public CouponIndex(CouponRepository couponRepository) {
+        this.couponRepository = couponRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * The active coupon for {@code code}, or empty for unknown, inactive or expired
+     * codes. Never queries the database.
+     */
+    public Optional<ActiveCoupon> find(String code) {
+        if (code == null || code.isBlank()) {
+            return Optional.empty();
+        }
+        String normalized = normalize(code);
+        Snapshot current = snapshot;
+        if (!current.codes().mightContain(normalized)) {
+            return Optional.empty();
+        }
+        ActiveCoupon coupon = current.byCode().get(normalized);
+        // Checked per call as well, in case the midnight refresh has not run yet
+        if (coupon == null || !coupon.isValidOn(LocalDate.now().toEpochDay())) {
+            return Optional.empty();
+        }
+        return Optional.of(coupon);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCouponChanged(CouponChangedEvent event) {
+        refresh();
+    }
+
+    @Scheduled(cron = "${coupons.index-expiry-cron:1 0 0 * * *}")
+    public void refreshAtMidnight() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.index-refresh-interval-ms:60000}",
+               initialDelayString = "${coupons.index-refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        long today = LocalDate.now().toEpochDay();
+        List<Coupon> active = couponRepository.findByActiveTrueOrderByExpiryDateAsc();
+
+        Map<String, ActiveCoupon> byCode = new HashMap<>();
+        for (Coupon coupon : active) {
+            ActiveCoupon entry = ActiveCoupon.of(coupon);
+            if (entry.isValidOn(today)) {
+                byCode.put(normalize(entry.code()), entry);
+            }
+        }
+
+        BloomFilter<CharSequence> codes = BloomFilter.create(
+            Funnels.stringFunnel(StandardCharsets.UTF_8), Math.max(byCode.size(), 100), FALSE_POSITIVE_RATE);
+        byCode.keySet().forEach(codes::put);
+
+        snapshot = new Snapshot(Map.copyOf(byCode), codes);
+        log.debug("Coupon index rebuilt with {} active coupons", byCode.size());
+    }
+
+    private static String normalize(String code) {
+        return code.toUpperCase().trim();
+    }
+}
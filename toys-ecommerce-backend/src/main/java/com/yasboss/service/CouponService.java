@@ -1,14 +1,25 @@
 package com.yasboss.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.yasboss.event.CouponChangedEvent;
 import com.yasboss.model.Coupon;
 import com.yasboss.repository.CouponRepository;
 
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
@@ -18,6 +29,18 @@ public class CouponService {
     @Autowired
     private CouponRepository couponRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CouponIndex couponIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Uses of unlimited coupons not yet written to coupons.used_count
+    private final Map<String, LongAdder> usageCounters = new ConcurrentHashMap<>();
+
     /**
      * ✨ FIX: Added createCoupon method
      * This ensures your Controller finds the symbol it's looking for.
@@ -28,23 +51,36 @@ public class CouponService {
         // but we'll trim just to be safe.
         coupon.setCode(coupon.getCode().toUpperCase().trim());
         coupon.setUsedCount(0); 
-        return couponRepository.save(coupon);
+        Coupon saved = couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(saved.getCode()));
+        return saved;
     }
 
     /**
      * 🛒 Validate and Calculate Discount
      */
     public Double validateAndCalculateDiscount(String code, Double orderAmount) {
-        Coupon coupon = couponRepository.findByCode(code.toUpperCase().trim())
-            .filter(c -> c.isActive() && !c.isExpired() && !c.isLimitReached())
+        CouponIndex.ActiveCoupon coupon = validateCoupon(code, orderAmount);
+
+        double discount = orderAmount * (coupon.discountPercent() / 100.0);
+        return Math.min(discount, orderAmount);
+    }
+
+    /**
+     * The usable coupon for {@code code} at this order amount (PricingEngine applies the percentage).
+     * Served from CouponIndex: unknown, inactive and expired codes never reach the database;
+     * only limited coupons read their current usage count.
+     */
+    public CouponIndex.ActiveCoupon validateCoupon(String code, double orderAmount) {
+        CouponIndex.ActiveCoupon coupon = couponIndex.find(code)
+            .filter(c -> c.usageLimit() == null || couponRepository.findUsedCountById(c.id())
+                .map(used -> used < c.usageLimit()).orElse(false))
             .orElseThrow(() -> new RuntimeException("Invalid, expired, or fully used coupon."));
 
-        if (orderAmount < coupon.getMinOrderValue()) {
-            throw new RuntimeException("Minimum order of ₹" + coupon.getMinOrderValue() + " required.");
+        if (orderAmount < coupon.minOrderValue()) {
+            throw new RuntimeException("Minimum order of ₹" + coupon.minOrderValue() + " required.");
         }
-
-        double discount = orderAmount * (coupon.getDiscountPercent() / 100.0);
-        return Math.min(discount, orderAmount);
+        return coupon;
     }
 
     // --- Admin Management Methods ---
@@ -62,7 +98,9 @@ public class CouponService {
                 existing.setExpiryDate(coupon.getExpiryDate());
                 existing.setActive(coupon.isActive());
                 existing.setUsageLimit(coupon.getUsageLimit());
-                return couponRepository.save(existing);
+                Coupon saved = couponRepository.save(existing);
+                eventPublisher.publishEvent(new CouponChangedEvent(saved.getCode()));
+                return saved;
             })
             .orElseGet(() -> createCoupon(coupon));
     }
@@ -70,24 +108,92 @@ public class CouponService {
     @Transactional
     public void deleteCoupon(Long id) {
         couponRepository.deleteById(id);
+        eventPublisher.publishEvent(new CouponChangedEvent(null));
+    }
+
+    // --- ⚡ Redemption ---
+
+    /**
+     * Claims one use of an already validated coupon, in the caller's transaction.
+     * Limited coupons take their slot with one conditional UPDATE (false = the last
+     * slot went to someone else); a rollback gives the slot back. Unlimited coupons
+     * only count uses, so they bump a striped in-memory counter after commit and
+     * {@link #flushUsageCounters()} writes the totals in one batch.
+     */
+    @Transactional
+    public boolean redeem(CouponIndex.ActiveCoupon coupon) {
+        if (coupon.usageLimit() == null) {
+            String code = coupon.code();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        countUse(code, 1);
+                    }
+                });
+            } else {
+                countUse(code, 1);
+            }
+            return true;
+        }
+        return couponRepository.redeemIfUnderLimit(coupon.id()) == 1;
     }
 
-    // Inside CouponService.java
+    /**
+     * Returns a use taken by {@link #redeem(CouponIndex.ActiveCoupon)} for an order that was never saved.
+     */
+    @Transactional
+    public void release(String code) {
+        if (code == null || code.isEmpty()) return;
+        String normalized = code.toUpperCase().trim();
+        if (couponRepository.releaseLimited(normalized) == 0) {
+            countUse(normalized, -1);
+        }
+    }
 
+    /**
+     * Outbox COUPON_REDEMPTION events queued before redemption moved to checkout.
+     */
     @Transactional
     public void incrementUsage(String code) {
         if (code == null || code.isEmpty()) return;
 
         couponRepository.findByCode(code.toUpperCase().trim()).ifPresent(coupon -> {
-            coupon.setUsedCount(coupon.getUsedCount() + 1);
-            
-            // Check if we hit the limit
-            if (coupon.isLimitReached()) {
-                coupon.setActive(false);
+            if (redeem(CouponIndex.ActiveCoupon.of(coupon))) {
+                log.info("Coupon {} usage incremented", code);
+            } else {
+                log.warn("Coupon {} is at its usage limit, redemption skipped", code);
             }
-            
-            couponRepository.save(coupon);
-            log.info("Coupon {} usage incremented. Current count: {}", code, coupon.getUsedCount());
         });
     }
-}
\ No newline at end of file
+
+    private void countUse(String code, long delta) {
+        usageCounters.computeIfAbsent(code, key -> new LongAdder()).add(delta);
+    }
+
+    @Scheduled(fixedDelayString = "${coupons.usage-flush-interval-ms:5000}")
+    public void flushUsageCounters() {
+        List<Object[]> batch = new ArrayList<>();
+        usageCounters.forEach((code, counter) -> {
+            long uses = counter.sumThenReset();
+            if (uses != 0) {
+                batch.add(new Object[] { uses, code });
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE coupons SET used_count = used_count + ? WHERE code = ?", batch);
+        } catch (RuntimeException e) {
+            log.warn("Coupon usage flush failed, keeping {} counters for the next run: {}", batch.size(), e.getMessage());
+            batch.forEach(row -> countUse((String) row[1], (Long) row[0]));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushUsageCounters();
+    }
+}
@@ -0,0 +1,167 @@
+package com.yasboss.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ✨ Allocation-light CSV writer
+ * Fields are copied straight into one reusable char buffer that is flushed to
+ * the underlying stream when full; numbers are formatted digit by digit. No
+ * String is built per row, so export cost is the DB cursor plus the bytes.
+ * Not thread-safe: one instance per export.
+ */
+public class CsvStreamWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private int position;
+    private boolean rowStarted;
+
+    public CsvStreamWriter(OutputStream stream) {
+        this.out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+    }
+
+    public CsvStreamWriter field(String value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            append(value);
+            return this;
+        }
+        put('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put('"');
+            }
+            put(c);
+        }
+        put('"');
+        return this;
+    }
+
+    public CsvStreamWriter field(long value) throws IOException {
+        separator();
+        appendLong(value);
+        return this;
+    }
+
+    public CsvStreamWriter field(Long value) throws IOException {
+        if (value == null) {
+            separator();
+            return this;
+        }
+        return field(value.longValue());
+    }
+
+    /**
+     * Writes a money value with exactly two decimals (e.g. 1499.50).
+     */
+    public CsvStreamWriter money(Double value) throws IOException {
+        separator();
+        if (value == null) {
+            return this;
+        }
+        long paise = Math.round(value * 100);
+        if (paise < 0) {
+            put('-');
+            paise = -paise;
+        }
+        appendLong(paise / 100);
+        put('.');
+        long fraction = paise % 100;
+        put((char) ('0' + fraction / 10));
+        put((char) ('0' + fraction % 10));
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        put('\r');
+        put('\n');
+        rowStarted = false;
+    }
+
+    public void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    /**
+     * Flushes everything written so far. The underlying stream stays open; its owner closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            put(',');
+        }
+        rowStarted = true;
+    }
+
+    private boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void appendLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            append(Long.toString(value));
+            return;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int i = digits.length;
+        do {
+            digits[--i] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (; i < digits.length; i++) {
+            put(digits[i]);
+        }
+    }
+
+    private void append(String value) throws IOException {
+        int offset = 0;
+        int length = value.length();
+        while (offset < length) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int chunk = Math.min(length - offset, buffer.length - position);
+            value.getChars(offset, offset + chunk, buffer, position);
+            position += chunk;
+            offset += chunk;
+        }
+    }
+
+    private void put(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
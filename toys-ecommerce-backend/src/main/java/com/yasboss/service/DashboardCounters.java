@@ -0,0 +1,177 @@
+package com.yasboss.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.event.SalesRollupChangedEvent;
+import com.yasboss.event.StockChangedEvent;
+import com.yasboss.model.OrderStatus;
+import com.yasboss.repository.DailySalesRollupRepository;
+import com.yasboss.repository.OrderRepository;
+import com.yasboss.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ In-Memory Dashboard Counters
+ * Orders per status, revenue and the low-stock count, kept current from domain
+ * events so the admin dashboard is served without touching the database.
+ * Counters are striped (LongAdder/DoubleAdder; product sets are concurrent key
+ * sets whose size() is itself striped), so concurrent checkouts never contend on
+ * one cache line. A scheduled reconcile resets everything from the DB, which also
+ * absorbs drift from archiving, bulk SQL and events lost to a restart.
+ * Revenue is the sales rollup total (sale statuses, lines + GST; see SalesRollupService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCounters {
+
+    public static final int LOW_STOCK_THRESHOLD = 10;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final DailySalesRollupRepository rollupRepository;
+
+    private final Map<OrderStatus, LongAdder> ordersByStatus = newStatusCounters();
+    private final DoubleAdder revenue = new DoubleAdder();
+    private final Set<Long> productIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> lowStockIds = ConcurrentHashMap.newKeySet();
+
+    private volatile LocalDateTime reconciledAt;
+
+    private static Map<OrderStatus, LongAdder> newStatusCounters() {
+        Map<OrderStatus, LongAdder> counters = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counters.put(status, new LongAdder());
+        }
+        return counters; // Never modified after construction, so lock-free reads are safe
+    }
+
+    // --- 📥 Event Feed ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.previousStatus() != null) {
+            ordersByStatus.get(event.previousStatus()).decrement();
+        }
+        ordersByStatus.get(event.newStatus()).increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSalesRollupChanged(SalesRollupChangedEvent event) {
+        revenue.add(event.revenueDelta());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (event.deleted()) {
+            productIds.remove(event.productId());
+            lowStockIds.remove(event.productId());
+            return;
+        }
+        productIds.add(event.productId());
+        if (isLowStock(event.stockQuantity())) {
+            lowStockIds.add(event.productId());
+        } else {
+            lowStockIds.remove(event.productId());
+        }
+    }
+
+    private static boolean isLowStock(Integer stockQuantity) {
+        return stockQuantity != null && stockQuantity < LOW_STOCK_THRESHOLD; // NULL never matched the SQL count either
+    }
+
+    // --- 🔄 Reconcile ---
+
+    /**
+     * Replaces every counter with the DB value. Runs at startup and then every
+     * {@code dashboard.reconcile-interval-ms}; an event that lands mid-reconcile can
+     * leave a counter off by one change until the next run.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<OrderStatus, Long> dbCounts = new EnumMap<>(OrderStatus.class);
+        for (OrderRepository.StatusCount row : orderRepository.countGroupedByStatus()) {
+            // Same reading as OrderStatusService, so transitions out of a legacy status keep the counts in step
+            dbCounts.merge(OrderStatus.fromStored(row.getStatus()), row.getCount(), Long::sum);
+        }
+
+        long drift = 0;
+        for (Map.Entry<OrderStatus, LongAdder> counter : ordersByStatus.entrySet()) {
+            long actual = dbCounts.getOrDefault(counter.getKey(), 0L);
+            drift += Math.abs(counter.getValue().sumThenReset() - actual);
+            counter.getValue().add(actual);
+        }
+
+        double actualRevenue = rollupRepository.sumRevenue().doubleValue();
+        double revenueDrift = revenue.sumThenReset() - actualRevenue;
+        revenue.add(actualRevenue);
+
+        replace(productIds, productRepository.findAllIds());
+        replace(lowStockIds, productRepository.findIdsByStockQuantityLessThan(LOW_STOCK_THRESHOLD));
+
+        if (reconciledAt != null && (drift != 0 || Math.abs(revenueDrift) >= 0.01)) {
+            log.info("Dashboard counters reconciled: order counts off by {}, revenue off by {}", drift,
+                String.format("%.2f", revenueDrift));
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+
+    private static void replace(Set<Long> target, Collection<Long> actual) {
+        Set<Long> fresh = Set.copyOf(actual);
+        target.retainAll(fresh);
+        target.addAll(fresh);
+    }
+
+    // --- 📤 Reads (no queries) ---
+
+    public long ordersWithStatus(OrderStatus status) {
+        return ordersByStatus.get(status).sum();
+    }
+
+    public long totalOrders() {
+        long total = 0;
+        for (LongAdder counter : ordersByStatus.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public Map<String, Long> ordersByStatus() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        ordersByStatus.forEach((status, counter) -> counts.put(status.name(), counter.sum()));
+        return counts;
+    }
+
+    public double revenue() {
+        return Math.round(revenue.sum() * 100) / 100.0;
+    }
+
+    public long totalProducts() {
+        return productIds.size();
+    }
+
+    public long lowStockCount() {
+        return lowStockIds.size();
+    }
+
+    public LocalDateTime reconciledAt() {
+        return reconciledAt;
+    }
+
+}
@@ -4,6 +4,7 @@ import jakarta.mail.internet.MimeMessage; // Required import
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper; // Required import
@@ -20,6 +21,9 @@ public class EmailService {
     @Autowired
     private InvoiceService invoiceService; // Service that generates the PDF byte[]
 
+    @Autowired
+    private InvoiceStore invoiceStore; // Stored PDF, rendered once per invoice number
+
     public void sendOrderConfirmationWithInvoice(Order order) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
@@ -37,13 +41,17 @@ public class EmailService {
             helper.setText(htmlBody, true);
 
             // ✨ Attach the PDF Invoice
-            byte[] pdfContent = invoiceService.generateInvoicePdf(order);
-            helper.addAttachment("Invoice_" + order.getOrderId() + ".pdf", 
-                                new ByteArrayResource(pdfContent));
+            String attachmentName = "Invoice_" + order.getOrderId() + ".pdf";
+            if (order.getInvoiceNumber() != null) {
+                helper.addAttachment(attachmentName, new FileSystemResource(invoiceStore.getOrRender(order)));
+            } else {
+                helper.addAttachment(attachmentName, new ByteArrayResource(invoiceService.generateInvoicePdf(order)));
+            }
 
             mailSender.send(message);
         } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
+            // Rethrow so the outbox worker schedules a retry
+            throw new IllegalStateException("Failed to send order confirmation for " + order.getOrderId(), e);
         }
     }
 
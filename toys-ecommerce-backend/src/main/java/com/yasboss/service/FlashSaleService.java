@@ -0,0 +1,477 @@
+package com.yasboss.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yasboss.dto.OrderRequestDTO;
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.event.StockChangedEvent;
+import com.yasboss.exception.ConflictException;
+import com.yasboss.exception.ResourceNotFoundException;
+import com.yasboss.model.FlashSaleFailure;
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
+import com.yasboss.model.Product;
+import com.yasboss.repository.FlashSaleFailureRepository;
+import com.yasboss.repository.OrderRepository;
+import com.yasboss.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * ✨ Flash Sale Mode
+ * While a SKU is on flash sale its stock lives in an in-memory token counter:
+ * a checkout either wins its tokens with a CAS (no DB round trip, no row lock
+ * on products) or is told "sold out" immediately. Winning orders are queued and
+ * a single writer persists them in batches, then subtracts the batch's stock
+ * with one UPDATE per SKU. A batch that fails is split in half and retried, so
+ * one bad row only costs its own order; an order that still cannot be written is
+ * kept in flash_sale_failures (with its request) and its units go back on sale.
+ *
+ * Tokens are per node, so run a flash sale on one node (or split the stock).
+ */
+@Service
+@Slf4j
+public class FlashSaleService {
+
+    public enum Outcome { ACCEPTED, SOLD_OUT, BUSY }
+
+    public record Submission(Outcome outcome, String orderId) {}
+
+    // Accepted order plus the flash units it holds, so stock is settled even if the sale is stopped meanwhile
+    private record PendingOrder(Order order, Map<Long, Integer> flashUnits) {}
+
+    private static final class FlashSku {
+        final Long productId;
+        final String name;
+        final double price;
+        final String imageUrl;
+        final int initialStock;
+        final AtomicInteger tokens;
+
+        FlashSku(Product product, int stock) {
+            this.productId = product.getId();
+            this.name = product.getName();
+            this.price = product.getSellingPrice() != null ? product.getSellingPrice() : product.getPrice();
+            this.imageUrl = product.getImageUrl();
+            this.initialStock = stock;
+            this.tokens = new AtomicInteger(stock);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final PricingEngine pricingEngine;
+    private final CouponService couponService;
+    private final FlashSaleFailureRepository failureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderReferences orderReferences;
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final Map<Long, FlashSku> activeSkus = new ConcurrentHashMap<>();
+    // Units accepted but not yet subtracted from products.stock_quantity
+    private final Map<Long, AtomicInteger> inFlightUnits = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingOrder> ingestQueue;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong soldOut = new AtomicLong();
+    private final AtomicLong persisted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private Thread writer;
+    private volatile boolean running = true;
+
+    @Value("${flash-sale.batch-size:200}")
+    private int batchSize;
+
+    @Value("${flash-sale.max-batch-wait-ms:50}")
+    private long maxBatchWaitMs;
+
+    public FlashSaleService(ProductRepository productRepository,
+                            OrderRepository orderRepository,
+                            PricingEngine pricingEngine,
+                            CouponService couponService,
+                            FlashSaleFailureRepository failureRepository,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            OrderReferences orderReferences,
+                            @Value("${flash-sale.queue-capacity:10000}") int queueCapacity) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.pricingEngine = pricingEngine;
+        this.couponService = couponService;
+        this.failureRepository = failureRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.orderReferences = orderReferences;
+        this.ingestQueue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void startWriter() {
+        writer = new Thread(this::drainLoop, "flash-sale-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // --- Admin controls ---
+
+    /**
+     * Loads the product's stock into tokens, minus units from an earlier run that are
+     * still queued (their UPDATE has not reached the row yet). A running sale is
+     * refused instead of being reset.
+     */
+    public synchronized Map<String, Object> start(Long productId) {
+        if (activeSkus.containsKey(productId)) {
+            throw new ConflictException("A flash sale is already running for product " + productId);
+        }
+        Product product = productRepository.findById(productId)
+            .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+        int dbStock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        int stock = Math.max(0, dbStock - inFlight(productId).get());
+        FlashSku sku = new FlashSku(product, stock);
+        activeSkus.put(productId, sku);
+        log.info("Flash sale started for product {} with {} units ({} in stock, {} still queued)",
+            productId, stock, dbStock, dbStock - stock);
+        return describe(sku);
+    }
+
+    /**
+     * Ends the sale for new checkouts. Orders already queued are still written.
+     */
+    public Map<String, Object> stop(Long productId) {
+        FlashSku sku = activeSkus.remove(productId);
+        if (sku == null) {
+            throw new ResourceNotFoundException("No flash sale running for product " + productId);
+        }
+        log.info("Flash sale stopped for product {} with {} units unsold", productId, sku.tokens.get());
+        return describe(sku);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("skus", activeSkus.values().stream().map(this::describe).toList());
+        status.put("queued", ingestQueue.size());
+        status.put("accepted", accepted.get());
+        status.put("soldOut", soldOut.get());
+        status.put("persisted", persisted.get());
+        status.put("failed", failed.get());
+        status.put("unresolvedFailures", failureRepository.countByResolvedFalse());
+        return status;
+    }
+
+    public List<FlashSaleFailure> getFailures() {
+        return failureRepository.findByResolvedFalseOrderByCreatedAtDesc();
+    }
+
+    // --- Checkout path ---
+
+    public boolean isFlashOrder(OrderRequestDTO request) {
+        if (activeSkus.isEmpty() || request.getItems() == null) {
+            return false;
+        }
+        return request.getItems().stream().anyMatch(item -> activeSkus.containsKey(item.getProductId()));
+    }
+
+    /**
+     * Takes tokens for every flash SKU in the order, or none of them.
+     */
+    public Submission submit(OrderRequestDTO request) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        for (OrderRequestDTO.OrderItemRequest item : request.getItems()) {
+            FlashSku sku = activeSkus.get(item.getProductId());
+            if (sku == null) {
+                continue;
+            }
+            if (!takeTokens(sku, quantityOf(item))) {
+                releaseTokens(reserved);
+                soldOut.incrementAndGet();
+                return new Submission(Outcome.SOLD_OUT, null);
+            }
+            reserved.merge(item.getProductId(), quantityOf(item), Integer::sum);
+        }
+
+        Order order;
+        try {
+            order = buildOrder(request);
+        } catch (RuntimeException e) {
+            releaseTokens(reserved);
+            throw e;
+        }
+        // Counted before the offer so a concurrent start() never sees a queued order without its units
+        adjustInFlight(reserved, 1);
+        if (!ingestQueue.offer(new PendingOrder(order, reserved))) {
+            adjustInFlight(reserved, -1);
+            releaseTokens(reserved);
+            couponService.release(order.getAppliedCoupon());
+            return new Submission(Outcome.BUSY, null);
+        }
+        accepted.incrementAndGet();
+        return new Submission(Outcome.ACCEPTED, order.getOrderId());
+    }
+
+    private boolean takeTokens(FlashSku sku, int quantity) {
+        int current;
+        do {
+            current = sku.tokens.get();
+            if (current < quantity) {
+                return false;
+            }
+        } while (!sku.tokens.compareAndSet(current, current - quantity));
+        return true;
+    }
+
+    private AtomicInteger inFlight(Long productId) {
+        return inFlightUnits.computeIfAbsent(productId, id -> new AtomicInteger());
+    }
+
+    private void adjustInFlight(Map<Long, Integer> units, int sign) {
+        units.forEach((productId, quantity) -> inFlight(productId).addAndGet(sign * quantity));
+    }
+
+    private void releaseTokens(Map<Long, Integer> units) {
+        units.forEach((productId, quantity) -> {
+            FlashSku sku = activeSkus.get(productId);
+            if (sku != null) {
+                sku.tokens.addAndGet(quantity);
+            }
+        });
+    }
+
+    private Order buildOrder(OrderRequestDTO request) {
+        Order order = new Order();
+        order.setOrderId(orderReferences.next());
+        order.setOrderDate(LocalDateTime.now());
+        order.setUserEmail(request.getEmail());
+        order.setShippingAddress(request.getShippingAddress());
+        order.setCustomerNotes(request.getCustomerNotes());
+        order.setPaymentMethod(request.getPaymentMethod());
+        order.setStatus("PENDING");
+
+        // SKUs read once, so a sale stopped meanwhile cannot leave a line without a price
+        Map<Long, FlashSku> skus = new HashMap<>();
+        List<Long> productIds = new ArrayList<>();
+        for (OrderRequestDTO.OrderItemRequest itemReq : request.getItems()) {
+            productIds.add(itemReq.getProductId());
+            FlashSku sku = activeSkus.get(itemReq.getProductId());
+            if (sku != null) {
+                skus.put(sku.productId, sku);
+            }
+        }
+        // All-flash baskets (the hot path) skip the catalog query; hsnCodesFor only queries while a GST_RATE_* override is set
+        boolean allOnSale = skus.keySet().containsAll(productIds);
+        PricingEngine.Catalog catalog = allOnSale ? null : pricingEngine.catalogFor(productIds);
+        Map<Long, String> hsnCodes = allOnSale ? pricingEngine.hsnCodesFor(productIds) : Map.of();
+
+        PricingEngine.Calculation pricing = pricingEngine.start();
+        List<OrderItem> items = new ArrayList<>();
+        for (OrderRequestDTO.OrderItemRequest itemReq : request.getItems()) {
+            FlashSku sku = skus.get(itemReq.getProductId());
+            OrderItem item = new OrderItem();
+            item.setProductId(itemReq.getProductId());
+            item.setQuantity(quantityOf(itemReq));
+            if (sku != null) {
+                // Flash price is the one captured when the sale started
+                item.setProductName(sku.name);
+                item.setPrice(sku.price);
+                item.setImageUrl(sku.imageUrl);
+            } else {
+                item.setProductName(itemReq.getProductName());
+                item.setPrice(catalog.unitPrice(itemReq.getProductId()));
+            }
+            item.setOrder(order);
+            items.add(item);
+            String hsnCode = catalog != null ? catalog.hsnCode(item.getProductId()) : hsnCodes.get(item.getProductId());
+            pricing.addLine(item.getPrice(), item.getQuantity(), hsnCode);
+        }
+        order.setItems(items);
+
+        // The coupon use is claimed here (its own short transaction) and given back if the order is never written
+        PricingEngine.Quote quote = pricing.finish(request.getCouponCode());
+        if (quote.coupon() != null) {
+            if (!couponService.redeem(quote.coupon())) {
+                throw new RuntimeException("Invalid, expired, or fully used coupon.");
+            }
+            order.setAppliedCoupon(request.getCouponCode());
+        }
+        order.setTotalAmount(quote.total());
+        order.setDiscountAmount(quote.discount());
+        order.setGstAmount(quote.tax());
+        order.setCgst(quote.cgst());
+        order.setSgst(quote.sgst());
+        order.setPointsToEarn(quote.pointsToEarn());
+        return order;
+    }
+
+    private static int quantityOf(OrderRequestDTO.OrderItemRequest item) {
+        return item.getQuantity() != null && item.getQuantity() > 0 ? item.getQuantity() : 1;
+    }
+
+    // --- Writer ---
+
+    private void drainLoop() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+        while (running || !ingestQueue.isEmpty()) {
+            try {
+                PendingOrder first = ingestQueue.poll(maxBatchWaitMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ingestQueue.drainTo(batch, batchSize - 1);
+                persistOrSplit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch in one transaction; if that fails, each half is retried on its
+     * own, down to single orders, so the good orders of a batch are never dropped.
+     */
+    private void persistOrSplit(List<PendingOrder> batch) {
+        try {
+            persist(batch);
+            batch.forEach(pending -> adjustInFlight(pending.flashUnits(), -1));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                recordFailure(batch.get(0), e);
+                return;
+            }
+            log.warn("Flash sale batch of {} orders failed ({}), retrying in halves", batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            persistOrSplit(new ArrayList<>(batch.subList(0, middle)));
+            persistOrSplit(new ArrayList<>(batch.subList(middle, batch.size())));
+        }
+    }
+
+    /**
+     * The customer was told ACCEPTED, so the order is kept where support can find it
+     * (GET /api/admin/flash-sales/failures) rather than only in the log. Nothing of it
+     * was written, so its units and coupon use go back.
+     */
+    private void recordFailure(PendingOrder pending, RuntimeException cause) {
+        Order order = pending.order();
+        failed.incrementAndGet();
+        log.error("Flash sale order {} for {} could not be written: {}", order.getOrderId(), order.getUserEmail(),
+            cause.getMessage());
+        try {
+            FlashSaleFailure failure = new FlashSaleFailure();
+            failure.setOrderId(order.getOrderId());
+            failure.setUserEmail(order.getUserEmail());
+            failure.setPayload(MAPPER.writeValueAsString(snapshotOf(order)));
+            failure.setError(abbreviate(String.valueOf(cause.getMessage()), 1000));
+            failureRepository.save(failure);
+        } catch (RuntimeException e) {
+            log.error("Could not record failed flash sale order {}: {}", order.getOrderId(), e.getMessage());
+        } finally {
+            adjustInFlight(pending.flashUnits(), -1);
+            releaseTokens(pending.flashUnits());
+            couponService.release(order.getAppliedCoupon());
+        }
+    }
+
+    private static Map<String, Object> snapshotOf(Order order) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("orderId", order.getOrderId());
+        snapshot.put("orderDate", String.valueOf(order.getOrderDate()));
+        snapshot.put("userEmail", order.getUserEmail());
+        snapshot.put("shippingAddress", order.getShippingAddress());
+        snapshot.put("paymentMethod", order.getPaymentMethod());
+        snapshot.put("customerNotes", order.getCustomerNotes());
+        snapshot.put("appliedCoupon", order.getAppliedCoupon());
+        snapshot.put("totalAmount", order.getTotalAmount());
+        snapshot.put("discountAmount", order.getDiscountAmount());
+        snapshot.put("gstAmount", order.getGstAmount());
+        List<Map<String, Object>> lines = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProductId());
+            line.put("productName", item.getProductName());
+            line.put("quantity", item.getQuantity());
+            line.put("price", item.getPrice());
+            lines.add(line);
+        }
+        snapshot.put("items", lines);
+        return snapshot;
+    }
+
+    private static String abbreviate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private void persist(List<PendingOrder> batch) {
+        batch.forEach(pending -> resetForInsert(pending.order()));
+        transactionTemplate.executeWithoutResult(status -> {
+            // Pooled sequences + hibernate.jdbc.batch_size turn this into a handful of batched INSERTs
+            List<Order> saved = orderRepository.saveAll(batch.stream().map(PendingOrder::order).toList());
+
+            Map<Long, Integer> soldPerSku = new HashMap<>();
+            batch.forEach(pending -> pending.flashUnits().forEach((id, qty) -> soldPerSku.merge(id, qty, Integer::sum)));
+
+            for (Order order : saved) {
+                eventPublisher.publishEvent(OrderStatusChangedEvent.placed(order));
+            }
+            soldPerSku.forEach((productId, quantity) -> {
+                productRepository.decrementStockQuantity(productId, quantity);
+                productRepository.findStockQuantityById(productId)
+                    .ifPresent(stock -> eventPublisher.publishEvent(StockChangedEvent.of(productId, stock)));
+            });
+        });
+        persisted.addAndGet(batch.size());
+    }
+
+    /**
+     * A rolled-back saveAll leaves sequence ids, version 0 and a Hibernate collection
+     * on the order; save() would then merge rows that do not exist. Clearing them
+     * makes a retried order new again.
+     */
+    private static void resetForInsert(Order order) {
+        order.setId(null);
+        order.setVersion(null);
+        List<OrderItem> items = new ArrayList<>(order.getItems());
+        items.forEach(item -> item.setId(null));
+        order.setItems(items);
+    }
+
+    private Map<String, Object> describe(FlashSku sku) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("productId", sku.productId);
+        view.put("name", sku.name);
+        view.put("price", sku.price);
+        view.put("initialStock", sku.initialStock);
+        view.put("remaining", sku.tokens.get());
+        return view;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+}
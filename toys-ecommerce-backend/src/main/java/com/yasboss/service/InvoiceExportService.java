@@ -0,0 +1,116 @@
+package com.yasboss.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.yasboss.model.Order;
+import com.yasboss.repository.OrderRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Bulk Invoice Export
+ * Streams every invoice issued in a date range as one ZIP. Invoices are fetched
+ * from InvoiceStore (rendered and stored first if missing) on a pool sized to
+ * the CPU count, while the caller's thread writes them into the ZIP in invoice
+ * order. Only a small window of invoices is in flight at any time.
+ */
+@Service
+@Slf4j
+public class InvoiceExportService {
+
+    private record StoredInvoice(String invoiceNumber, Path file) {}
+
+    private final OrderRepository orderRepository;
+    private final InvoiceStore invoiceStore;
+    private final ThreadPoolExecutor renderPool;
+    private final int window;
+
+    public InvoiceExportService(OrderRepository orderRepository, InvoiceStore invoiceStore) {
+        this.orderRepository = orderRepository;
+        this.invoiceStore = invoiceStore;
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.window = cores * 2;
+        this.renderPool = new ThreadPoolExecutor(
+            cores, cores, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("invoice-export-%d").setDaemon(true).build());
+        this.renderPool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Writes a ZIP of all invoices dated {@code from}..{@code to} (inclusive) to {@code out}.
+     */
+    public void exportZip(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        List<Long> orderIds = orderRepository.findInvoicedIdsBetween(
+            from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        log.info("Exporting {} invoices for {}..{}", orderIds.size(), from, to);
+
+        Deque<Future<StoredInvoice>> inFlight = new ArrayDeque<>(window);
+        int next = 0;
+
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            // PDFs are already compressed; don't spend CPU deflating them again
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            while (next < orderIds.size() || !inFlight.isEmpty()) {
+                // Keep the window full, then write the oldest one (preserves invoice order)
+                while (next < orderIds.size() && inFlight.size() < window) {
+                    Long id = orderIds.get(next++);
+                    inFlight.addLast(renderPool.submit(() -> fetch(id)));
+                }
+
+                StoredInvoice invoice = await(inFlight.removeFirst());
+                zip.putNextEntry(new ZipEntry(invoice.invoiceNumber() + ".pdf"));
+                Files.copy(invoice.file(), zip);
+                zip.closeEntry();
+            }
+            zip.finish();
+        } catch (IOException | RuntimeException e) {
+            // Client went away or a render failed: don't leave work running for a dead response
+            inFlight.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private StoredInvoice fetch(Long orderId) {
+        Order order = orderRepository.findWithItemsById(orderId)
+            .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId));
+        return new StoredInvoice(order.getInvoiceNumber(), invoiceStore.getOrRender(order));
+    }
+
+    private StoredInvoice await(Future<StoredInvoice> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Invoice render failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+}
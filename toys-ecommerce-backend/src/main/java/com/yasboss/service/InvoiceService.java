@@ -1,44 +1,88 @@
 package com.yasboss.service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 
 import org.openpdf.text.Document;
-import org.openpdf.text.Font;
-import org.openpdf.text.FontFactory;
+import org.openpdf.text.Element;
+import org.openpdf.text.Image;
 import org.openpdf.text.PageSize;
 import org.openpdf.text.Paragraph;
-import org.openpdf.text.pdf.PdfWriter;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.pdf.PdfPTable;
 import org.springframework.stereotype.Service;
 
 import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
 
+/**
+ * ✨ The one GST invoice renderer.
+ * Used by InvoiceStore (rendered once per invoice number) and, through the store,
+ * by the confirmation email and the download endpoint. Fonts, logo and the items
+ * table header come precompiled from PdfRenderer.
+ */
 @Service
 public class InvoiceService {
 
-    public byte[] generateInvoicePdf(Order order) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        
+    private final PdfRenderer pdfRenderer;
+    private final PdfRenderer.TableLayout itemsLayout;
+
+    public InvoiceService(PdfRenderer pdfRenderer) {
+        this.pdfRenderer = pdfRenderer;
+        this.itemsLayout = pdfRenderer.layout(new float[] {5f, 2f, 1.5f, 2f}, "Toy Name", "Price", "Quantity", "Subtotal");
+    }
+
+    public void render(Order order, OutputStream out) {
+        Document document = pdfRenderer.open(out, PageSize.A4);
+
         try {
-            PdfWriter.getInstance(document, out);
-            document.open();
-
-            // Add Title
-            Font font = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-            document.add(new Paragraph("TOY STORE INVOICE", font));
-            document.add(new Paragraph("Order ID: " + order.getOrderId()));
-            document.add(new Paragraph("Customer: " + order.getUserEmail()));
-            document.add(new Paragraph("Date: " + order.getCreatedAt()));
-            document.add(new Paragraph("--------------------------------------------------"));
-
-            // Add Table or Item Details
-            document.add(new Paragraph("Total Amount Paid: INR " + order.getTotalAmount()));
-            document.add(new Paragraph("\nThank you for shopping with us!"));
-
-            document.close();
+            // Header
+            Image logo = pdfRenderer.logo(100, 60);
+            if (logo != null) {
+                logo.setAlignment(Element.ALIGN_RIGHT);
+                document.add(logo);
+            }
+            document.add(new Paragraph("YAS BOSS TOYS - GST INVOICE", pdfRenderer.titleFont()));
+            document.add(new Paragraph("----------------------------------------------------------------"));
+            if (order.getInvoiceNumber() != null) {
+                document.add(new Paragraph("Invoice Number: " + order.getInvoiceNumber(), pdfRenderer.bodyFont()));
+            }
+            if (order.getInvoiceDate() != null) {
+                document.add(new Paragraph("Invoice Date: " + order.getInvoiceDate().toLocalDate(), pdfRenderer.bodyFont()));
+            }
+            document.add(new Paragraph("Order Reference: " + order.getOrderId(), pdfRenderer.bodyFont()));
+            document.add(new Paragraph("Customer Email: " + order.getUserEmail(), pdfRenderer.bodyFont()));
+            document.add(new Paragraph("Shipping Address: " + order.getShippingAddress(), pdfRenderer.bodyFont()));
+            document.add(new Paragraph(" ")); // Empty line
+
+            // Items
+            PdfPTable table = itemsLayout.newTable();
+            if (order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    table.addCell(new Phrase(item.getProductName(), pdfRenderer.bodyFont()));
+                    table.addCell(new Phrase("Rs. " + item.getPrice(), pdfRenderer.bodyFont()));
+                    table.addCell(new Phrase(String.valueOf(item.getQuantity()), pdfRenderer.bodyFont()));
+                    table.addCell(new Phrase("Rs. " + (item.getPrice() * item.getQuantity()), pdfRenderer.bodyFont()));
+                }
+            }
+
+            document.add(table);
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph("Final Total Amount (GST Inclusive): Rs. " + order.getTotalAmount(), pdfRenderer.headerFont()));
+            document.add(new Paragraph("\nThank you for shopping at YAS BOSS!", pdfRenderer.bodyFont()));
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new IllegalStateException("Could not render invoice for " + order.getOrderId(), e);
+        } finally {
+            // Close the document to flush bytes to the stream
+            if (document.isOpen()) {
+                document.close();
+            }
         }
+    }
+
+    public byte[] generateInvoicePdf(Order order) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render(order, out);
         return out.toByteArray();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.yasboss.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.yasboss.model.Order;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Invoice File Store
+ * One immutable PDF per invoice number under {@code file.invoice-dir}. Files are
+ * rendered to a temp file and atomically renamed into place, so readers never
+ * see a half-written invoice and concurrent renders simply race to the same bytes.
+ */
+@Service
+@Slf4j
+public class InvoiceStore {
+
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final Path root;
+    private final InvoiceService invoiceService;
+
+    public InvoiceStore(@Value("${file.invoice-dir:${user.dir}/invoices/}") String invoiceDir,
+                        InvoiceService invoiceService) throws IOException {
+        this.root = Paths.get(invoiceDir).toAbsolutePath().normalize();
+        this.invoiceService = invoiceService;
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Returns the stored PDF, rendering it first if this invoice has never been written.
+     * The order must have its items loaded and an invoice number assigned.
+     */
+    public Path getOrRender(Order order) {
+        Path target = pathFor(order.getInvoiceNumber());
+        if (Files.exists(target)) {
+            return target;
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, order.getInvoiceNumber(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                invoiceService.render(order, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored invoice {} for order {}", order.getInvoiceNumber(), order.getOrderId());
+        } catch (FileAlreadyExistsException e) {
+            // Another worker stored it first (platforms that refuse to rename over a file);
+            // invoices are immutable so theirs is identical
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store invoice " + order.getInvoiceNumber(), e);
+        } finally {
+            deleteQuietly(temp);
+        }
+        return target;
+    }
+
+    public Path pathFor(String invoiceNumber) {
+        if (invoiceNumber == null || !SAFE_NAME.matcher(invoiceNumber).matches()) {
+            throw new IllegalArgumentException("Invalid invoice number: " + invoiceNumber);
+        }
+        return root.resolve(invoiceNumber + ".pdf");
+    }
+
+    private void deleteQuietly(Path temp) {
+        if (temp == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("Could not delete temp invoice file {}", temp);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.yasboss.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.yasboss.model.ArchivedOrder;
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderStatus;
+import com.yasboss.repository.ArchivedOrderRepository;
+import com.yasboss.repository.OrderRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * ✨ Cold Order Archiver
+ * Moves finished orders older than {@code orders.archive.after-months} out of the
+ * hot orders/order_items tables into archived_orders as gzip JSON. Each batch is
+ * copied and deleted in one transaction, so an order is always in exactly one place.
+ * Lookups fall back here when an order is no longer in the live tables.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    // Only orders nobody will act on again are archived
+    private static final List<String> ARCHIVABLE_STATUSES = List.of(
+        OrderStatus.DELIVERED.name(),
+        OrderStatus.CANCELLED.name(),
+        OrderStatus.RETURNED.name(),
+        OrderStatus.REPLACEMENT_REJECTED.name());
+
+    // The customer profile is not part of the order snapshot
+    @JsonIgnoreProperties({"user", "hibernateLazyInitializer", "handler"})
+    private abstract static class ArchivedOrderMixin {}
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+        .addMixIn(Order.class, ArchivedOrderMixin.class)
+        .build();
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderHistoryService orderHistoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${orders.archive.after-months:18}")
+    private int afterMonths;
+
+    @Value("${orders.archive.batch-size:200}")
+    private int batchSize;
+
+    public OrderArchiveService(OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               OrderHistoryService orderHistoryService,
+                               TransactionTemplate transactionTemplate) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderHistoryService = orderHistoryService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(cron = "${orders.archive.cron:0 0 3 * * *}")
+    public void archiveOldOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = YearMonth.now().minusMonths(afterMonths).atDay(1).atStartOfDay();
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} orders placed before {}", total, cutoff.toLocalDate());
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findArchivableIds(cutoff, ARCHIVABLE_STATUSES, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+        List<ArchivedOrder> archived = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            ArchivedOrder row = new ArchivedOrder();
+            row.setId(order.getId());
+            row.setOrderId(order.getOrderId());
+            row.setUserEmail(order.getUserEmail());
+            row.setStatus(order.getStatus());
+            row.setOrderDate(order.getOrderDate());
+            row.setArchiveMonth(YearMonth.from(order.getOrderDate()).toString());
+            row.setArchivedAt(LocalDateTime.now());
+            row.setPayload(compress(order));
+            archived.add(row);
+        }
+
+        archivedOrderRepository.saveAll(archived);
+        orderRepository.deleteAll(orders); // Items go with their order (cascade)
+
+        orders.stream()
+            .map(Order::getUserEmail)
+            .distinct()
+            .forEach(email -> { if (email != null) orderHistoryService.evictUser(email); });
+        return orders.size();
+    }
+
+    public Optional<Order> findByOrderId(String orderId) {
+        return archivedOrderRepository.findByOrderId(orderId).map(OrderArchiveService::restore);
+    }
+
+    public boolean isArchived(String orderId) {
+        return archivedOrderRepository.existsByOrderId(orderId);
+    }
+
+    // Archived rows keep the original orders.id
+    public Optional<Order> findById(Long id) {
+        return archivedOrderRepository.findById(id).map(OrderArchiveService::restore);
+    }
+
+    public List<Order> findByUserEmail(String email) {
+        return archivedOrderRepository.findByUserEmailOrderByOrderDateDesc(email).stream()
+            .map(OrderArchiveService::restore)
+            .toList();
+    }
+
+    /**
+     * Rebuilds a detached, read-only Order (with items) from its archived snapshot.
+     * Static so OrderHistoryService can read the archive without a bean cycle.
+     */
+    static Order restore(ArchivedOrder archived) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getPayload()))) {
+            return MAPPER.readValue(in, Order.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable archive for order " + archived.getOrderId(), e);
+        }
+    }
+
+    private byte[] compress(Order order) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(2048);
+        try (OutputStream out = new GZIPOutputStream(buffer)) {
+            MAPPER.writeValue(out, order);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive order " + order.getOrderId(), e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,123 @@
+package com.yasboss.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.yasboss.dto.OrderHistoryEntry;
+import com.yasboss.dto.OrderHistoryLine;
+import com.yasboss.dto.OrderHistoryPage;
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.model.ArchivedOrder;
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
+import com.yasboss.repository.ArchivedOrderRepository;
+import com.yasboss.repository.OrderItemRepository;
+import com.yasboss.repository.OrderRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Customer Order History
+ * Two fixed queries per page (orders, then all their items via IN), no matter
+ * how many orders or items the page holds. Pages are cached per user and
+ * dropped as soon as one of that user's orders is placed or changes status.
+ * Archived orders (always older than live ones) follow once the live rows run out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHistoryService {
+
+    public static final String CACHE_NAME = "orderHistory";
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final CacheManager cacheManager;
+
+    @Cacheable(value = CACHE_NAME, key = "#email + '#' + #page + '#' + #size")
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getHistory(String email, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // 1. One page of order headers (Slice peeks one row ahead instead of running a COUNT)
+        Slice<OrderHistoryEntry> slice = orderRepository.findHistoryByUserEmail(
+            email, PageRequest.of(Math.max(page, 0), pageSize));
+        List<OrderHistoryEntry> entries = slice.getContent();
+
+        // 2. Every item for those orders in a single IN query
+        if (!entries.isEmpty()) {
+            Map<Long, OrderHistoryEntry> byId = entries.stream()
+                .collect(Collectors.toMap(OrderHistoryEntry::getId, Function.identity()));
+            List<OrderHistoryLine> lines = orderItemRepository.findHistoryLinesByOrderIds(byId.keySet());
+            for (OrderHistoryLine line : lines) {
+                byId.get(line.getOrderDbId()).getItems().add(line);
+            }
+        }
+
+        if (slice.hasNext()) {
+            return new OrderHistoryPage(entries, slice.getNumber(), pageSize, true);
+        }
+
+        // 3. Live orders end on this page: fill it up from the archive
+        long pageStart = (long) slice.getNumber() * pageSize;
+        long liveTotal = entries.isEmpty() && pageStart > 0
+            ? orderRepository.countByUserEmail(email)
+            : pageStart + entries.size();
+        long archiveOffset = pageStart + entries.size() - liveTotal;
+        int wanted = pageSize - entries.size();
+
+        List<ArchivedOrder> archived = archivedOrderRepository.findHistoryPage(email, archiveOffset, wanted + 1);
+        List<OrderHistoryEntry> combined = new ArrayList<>(entries);
+        archived.stream().limit(wanted).map(row -> toEntry(OrderArchiveService.restore(row))).forEach(combined::add);
+        return new OrderHistoryPage(combined, slice.getNumber(), pageSize, archived.size() > wanted);
+    }
+
+    private static OrderHistoryEntry toEntry(Order order) {
+        OrderHistoryEntry entry = new OrderHistoryEntry(order.getId(), order.getOrderId(), order.getStatus(),
+            order.getPaymentStatus(), order.getTotalAmount(), order.getShippingAddress(), order.getTrackingId(),
+            order.getCreatedAt());
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                entry.getItems().add(new OrderHistoryLine(order.getId(), item.getId(), item.getProductId(),
+                    item.getProductName(), item.getPrice(), item.getQuantity(), item.getImageUrl()));
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Cache keys are "email#page#size", so every page of the user goes at once.
+     * Runs after commit so a concurrent reader can't re-cache the old state.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.userEmail() != null) {
+            evictUser(event.userEmail());
+        }
+    }
+
+    public void evictUser(String email) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            String prefix = email + "#";
+            caffeine.asMap().keySet().removeIf(key -> key.toString().startsWith(prefix));
+            log.debug("Evicted order history cache for {}", email);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.yasboss.service;
+
+import java.time.YearMonth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Monthly Partition Maintenance
+ * Once orders has been converted with sql/partition_orders.sql, this keeps the
+ * next few monthly partitions created ahead of time so inserts never land in
+ * the default partition. On an unpartitioned orders table it does nothing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPartitionService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${orders.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${orders.partitions.cron:0 30 2 * * *}")
+    public void ensureUpcomingPartitions() {
+        if (!isPartitioned("orders")) {
+            return;
+        }
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(month.plusMonths(i));
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+            "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = ?)",
+            Boolean.class, table);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private void createPartition(YearMonth month) {
+        // Name and bounds come from YearMonth only, never from user input
+        String name = String.format("orders_y%dm%02d", month.getYear(), month.getMonthValue());
+        String sql = String.format(
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')",
+            name, month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Typically rows for that month already sit in orders_default; needs a manual split
+            log.warn("Could not create partition {}: {}", name, e.getMostSpecificCause().getMessage());
+        }
+    }
+}
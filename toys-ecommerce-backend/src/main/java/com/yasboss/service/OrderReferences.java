@@ -0,0 +1,20 @@
+package com.yasboss.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * ✨ "YB-..." order references for every checkout path.
+ * The millisecond alone collides on the unique order_id when two checkouts land
+ * together, so a per-node counter is appended: YB-{millis}-{n}.
+ */
+@Component
+public class OrderReferences {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    public String next() {
+        return "YB-" + System.currentTimeMillis() + "-" + sequence.incrementAndGet();
+    }
+}
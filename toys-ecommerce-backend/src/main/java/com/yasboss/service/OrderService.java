@@ -1,28 +1,34 @@
 package com.yasboss.service;
 
-import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
-import org.openpdf.text.Document;
-import org.openpdf.text.DocumentException;
-import org.openpdf.text.PageSize;
-import org.openpdf.text.Paragraph;
-import org.openpdf.text.pdf.PdfPTable;
-import org.openpdf.text.pdf.PdfWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.yasboss.dto.OrderRequestDTO;
-import com.yasboss.model.GlobalSettings;
+import com.yasboss.dto.OrderRow;
+import com.yasboss.dto.OrderRowFilter;
+import com.yasboss.dto.OrderRowPage;
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.exception.InvalidRequestException;
+import com.yasboss.exception.InvalidStatusTransitionException;
+import com.yasboss.exception.ResourceNotFoundException;
 import com.yasboss.model.Order;
 import com.yasboss.model.OrderItem;
+import com.yasboss.model.OrderStatus;
 import com.yasboss.model.User;
 import com.yasboss.repository.OrderItemRepository;
 import com.yasboss.repository.OrderRepository;
-import com.yasboss.repository.SettingsRepository;
 import com.yasboss.repository.UserRepository;
 
 import jakarta.transaction.Transactional;
@@ -32,8 +38,8 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderService {
 
-    private final AuditService auditService;
-    
+    private static final int MAX_ORDER_PAGE_SIZE = 200;
+
     @Autowired
     private OrderRepository orderRepo;
 
@@ -44,71 +50,93 @@ public class OrderService {
     private UserRepository userRepo;
 
     @Autowired
-    private CouponService couponService;
+    private UserService userService;
 
     @Autowired
-    private UserService userService;
+    private SettingsService settingsService;
 
     @Autowired
-    private SettingsRepository settingsRepository;
+    private OutboxService outboxService;
 
     @Autowired
-    private EmailService emailService;
+    private OrderStatusService orderStatusService;
 
     @Autowired
-    private NotificationService notificationService;
+    private ApplicationEventPublisher eventPublisher;
 
-    OrderService(AuditService auditService) {
-        this.auditService = auditService;
-    }
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private CartStateStore cartStateStore;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private OrderReferences orderReferences;
 
     @Transactional
     public Order placeOrder(OrderRequestDTO request) {
+        cartStateStore.flush(request.getEmail()); // Pending +/- clicks reach cart_items before checkout
+
         Order order = new Order();
         order.setOrderDate(LocalDateTime.now());
         order.setShippingAddress(request.getShippingAddress());
         order.setCustomerNotes(request.getCustomerNotes());
         order.setUserEmail(request.getEmail());
+        order.setOrderId(orderReferences.next());
         order.setStatus("PENDING");
 
-        // 1. Calculate Base Subtotal from Database (Safety check)
-        double subtotal = 0;
+        // 1. ✨ Build the lines and price the basket in one pass (subtotal, coupon, GST, shipping, points)
+        // Name, image and unit price come from the catalog; the request only supplies ids and quantities
+        PricingEngine.Catalog catalog = pricingEngine.catalogFor(
+            request.getItems().stream().map(OrderRequestDTO.OrderItemRequest::getProductId).toList());
+        PricingEngine.Calculation pricing = pricingEngine.start();
+        List<OrderItem> items = new ArrayList<>(request.getItems().size());
         for (var itemReq : request.getItems()) {
-            subtotal += (itemReq.getPrice() * itemReq.getQuantity());
+            Long productId = itemReq.getProductId();
+            OrderItem item = new OrderItem();
+            item.setProductId(productId);
+            item.setProductName(catalog.name(productId));
+            item.setPrice(catalog.unitPrice(productId));
+            item.setImageUrl(catalog.imageUrl(productId));
+            item.setQuantity(itemReq.getQuantity());
+            item.setOrder(order);
+            items.add(item);
+            pricing.addLine(item.getPrice(), item.getQuantity(), catalog.hsnCode(productId));
         }
+        order.setItems(items);
 
-        // 2. ✨ HANDLE COUPON LOGIC
-        double couponDiscount = 0;
-        if (request.getCouponCode() != null && !request.getCouponCode().isEmpty()) {
-            // Validate one last time server-side
-            couponDiscount = couponService.validateAndCalculateDiscount(
-                request.getCouponCode(), 
-                subtotal
-            );
-            
-            // Increment the used count in DB
-            couponService.incrementUsage(request.getCouponCode());
+        // 2. Coupon is validated server-side inside the engine, then one use is claimed atomically
+        PricingEngine.Quote quote = pricing.finish(request.getCouponCode());
+        if (quote.coupon() != null) {
+            if (!couponService.redeem(quote.coupon())) {
+                throw new RuntimeException("Invalid, expired, or fully used coupon.");
+            }
             order.setAppliedCoupon(request.getCouponCode());
         }
 
-        // 3. Handle Delivery Charges
-        double delivery = subtotal >= 500 ? 0 : 49;
-
-        // 4. Final Total Calculation
-        double finalAmount = (subtotal - couponDiscount) + delivery;
-        order.setTotalAmount(finalAmount);
-        order.setDiscountAmount(couponDiscount);
-
-        // 5. Save and Return
-        return orderRepo.save(order);
+        // 3. Totals as shown in the cart
+        order.setTotalAmount(quote.total());
+        order.setDiscountAmount(quote.discount());
+        order.setGstAmount(quote.tax());
+        order.setCgst(quote.cgst());
+        order.setSgst(quote.sgst());
+        order.setPointsToEarn(quote.pointsToEarn());
+
+        // 4. Save order and lines (the coupon slot commits or rolls back with the order)
+        Order saved = orderRepo.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.placed(saved));
+        return saved;
     }
 
     @Transactional
     public void updateOrderStatus(Long id, String newStatus) {
-        Order order = orderRepo.findById(id)
-            .orElseThrow(() -> new RuntimeException("Order not found with ID: " + id));
-
-        order.setStatus(newStatus);
+        Order order = orderStatusService.transition(id, newStatus);
 
         if ("DELIVERED".equalsIgnoreCase(newStatus) && !order.isPointsCredited()) {
             User user = order.getUser();
@@ -117,65 +145,9 @@ public class OrderService {
                 user.setRewardPoints(currentPoints + order.getPointsToEarn());
                 order.setPointsCredited(true); 
                 userRepo.save(user);
+                orderRepo.save(order);
             }
         }
-        orderRepo.save(order);
-    }
-
-    /**
-     * Requirement #1: Generate GST Invoice PDF using OpenPDF
-     */
-    public byte[] generateInvoicePdf(Order order) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        
-        try {
-            PdfWriter.getInstance(document, out);
-            document.open();
-            
-            // Add Logo or Header
-            document.add(new Paragraph("YAS BOSS TOYS - GST INVOICE"));
-            document.add(new Paragraph("----------------------------------------------------------------"));
-            document.add(new Paragraph("Order Reference: " + order.getOrderId()));
-            document.add(new Paragraph("Customer Email: " + order.getUserEmail()));
-            document.add(new Paragraph("Shipping Address: " + order.getShippingAddress()));
-            document.add(new Paragraph(" ")); // Empty line
-            
-            // Build Table
-            PdfPTable table = new PdfPTable(4);
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(10f);
-            
-            table.addCell("Toy Name");
-            table.addCell("Price");
-            table.addCell("Quantity");
-            table.addCell("Subtotal");
-            
-            if (order.getItems() != null) {
-                for (OrderItem item : order.getItems()) {
-                    table.addCell(item.getProductName());
-                    table.addCell("Rs. " + item.getPrice());
-                    table.addCell(String.valueOf(item.getQuantity()));
-                    table.addCell("Rs. " + (item.getPrice() * item.getQuantity()));
-                }
-            }
-            
-            document.add(table);
-            document.add(new Paragraph(" "));
-            document.add(new Paragraph("Final Total Amount (GST Inclusive): Rs. " + order.getTotalAmount()));
-            document.add(new Paragraph("\nThank you for shopping at YAS BOSS!"));
-            
-        } catch (DocumentException e) {
-            // Log properly in a real application
-            e.printStackTrace();
-        } finally {
-            // CRITICAL: Close the document to flush bytes to stream
-            if (document.isOpen()) {
-                document.close();
-            }
-        }
-        
-        return out.toByteArray();
     }
 
     public List<Order> getOrdersByPhone(String phone) {
@@ -184,6 +156,8 @@ public class OrderService {
 
     @Transactional
     public Order placeOrder(Order order, String userEmail) {
+        cartStateStore.flush(userEmail);
+
         // 1. Fetch user profile to get the registered phone number
         User user = userRepo.findByEmail(userEmail)
             .orElseThrow(() -> new RuntimeException("User not found"));
@@ -195,25 +169,88 @@ public class OrderService {
         // 3. Set initial status and date
         order.setStatus("PENDING");
         order.setOrderDate(LocalDateTime.now());
-        order.setOrderId("YB-" + System.currentTimeMillis());
+        order.setOrderId(orderReferences.next());
 
-        return orderRepo.save(order);
+        Order saved = orderRepo.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.placed(saved));
+        return saved;
     }
 
     public Order createPendingOrder(String email, Long productId, int quantity) {
         Order order = new Order();
-        order.setOrderId("YB-" + System.currentTimeMillis());
+        order.setOrderId(orderReferences.next());
         order.setUserEmail(email);
         order.setStatus("PENDING");
         order.setOrderDate(LocalDateTime.now());
         
         // Additional logic to add the specific product as an OrderItem can be added here
         
-        return orderRepo.save(order);
+        Order saved = orderRepo.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.placed(saved));
+        return saved;
+    }
+
+    /**
+     * ✨ Admin order list: keyset page of flat rows, newest first.
+     * {@code status} may list several values ("SHIPPED,DISPATCHED") so a UI tab can be one query;
+     * {@code cursor} is the opaque "createdAtMillis_id" returned with the previous page.
+     */
+    public OrderRowPage getOrderRows(String status, String paymentStatus, String email,
+                                     LocalDate from, LocalDate to, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ORDER_PAGE_SIZE));
+
+        OrderRowFilter.OrderRowFilterBuilder filter = OrderRowFilter.builder()
+            .statuses(status != null && !status.isBlank()
+                ? Arrays.stream(status.toUpperCase().split(",")).map(String::trim).toList()
+                : null)
+            .paymentStatus(paymentStatus != null ? paymentStatus.toUpperCase() : null)
+            .email(email)
+            .createdFrom(from != null ? toDate(from) : null)
+            .createdTo(to != null ? toDate(to.plusDays(1)) : null);
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split("_");
+            try {
+                filter.afterCreatedAt(new Date(Long.parseLong(parts[0])))
+                      .afterId(Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new InvalidRequestException("Invalid cursor: " + cursor);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<OrderRow> rows = orderRepo.findOrderRows(filter.build(), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderRow last = rows.get(rows.size() - 1);
+            nextCursor = last.getCreatedAt().getTime() + "_" + last.getId();
+        }
+        return new OrderRowPage(rows, nextCursor, hasMore);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 
     public List<Order> getOrdersByEmail(String email) {
-        return orderRepo.findByUserEmailOrderByCreatedAtDesc(email);
+        List<Order> orders = new ArrayList<>(orderRepo.findByUserEmailOrderByCreatedAtDesc(email));
+        // Archived orders are always older than live ones, so they go at the end
+        orders.addAll(orderArchiveService.findByUserEmail(email));
+        return orders;
+    }
+
+    /**
+     * Looks up an order by its "YB-..." reference, falling back to the cold archive.
+     */
+    public Order getOrderByReference(String orderId) {
+        return orderRepo.findByOrderId(orderId)
+            .or(() -> orderArchiveService.findByOrderId(orderId))
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found: " + orderId));
     }
 
     @Transactional
@@ -226,13 +263,11 @@ public class OrderService {
         }
 
         if ("RETURN".equals(type)) {
-            order.setStatus("RETURN_REQUESTED");
+            order = orderStatusService.transition(order.getId(), OrderStatus.RETURN_REQUESTED);
             order.setRefundStatus("PENDING");
-        } else {
-            order.setStatus("REPLACEMENT_REQUESTED");
+            return orderRepo.save(order);
         }
-
-        return orderRepo.save(order);
+        return orderStatusService.transition(order.getId(), OrderStatus.REPLACEMENT_REQUESTED);
     }
 
     @Transactional
@@ -246,13 +281,14 @@ public class OrderService {
         }
 
         if ("RETURN".equalsIgnoreCase(type)) {
-            order.setStatus("RETURN_REQUESTED");
+            order = orderStatusService.transition(order.getId(), OrderStatus.RETURN_REQUESTED);
             order.setRefundStatus("PENDING"); // Automatically trigger refund flow
+            return orderRepo.save(order);
         } else if ("REPLACEMENT".equalsIgnoreCase(type)) {
-            order.setStatus("REPLACEMENT_REQUESTED");
+            return orderStatusService.transition(order.getId(), OrderStatus.REPLACEMENT_REQUESTED);
         }
 
-        return orderRepo.save(order);
+        return order;
     }
 
     @Transactional
@@ -270,14 +306,14 @@ public class OrderService {
             throw new IllegalStateException("Order cannot be cancelled once dispatched.");
         }
 
-        order.setStatus("CANCELLED");
+        Order cancelled = orderStatusService.transition(orderId, OrderStatus.CANCELLED);
         
         // 🔄 Optional: Refund points if used
-        if (order.getPointsUsed() > 0) {
-            userService.refundPoints(email, order.getPointsUsed());
+        if (cancelled.getPointsUsed() != null && cancelled.getPointsUsed() > 0) {
+            userService.refundPoints(email, cancelled.getPointsUsed());
         }
 
-        return orderRepo.save(order);
+        return cancelled;
     }
 
     @Transactional
@@ -299,12 +335,8 @@ public class OrderService {
             throw new IllegalStateException("You are not authorized to modify this order.");
         }
 
-        // 2. Fetch configurable window from DB
-        int windowDays = Integer.parseInt(
-            settingsRepository.findById("RETURN_WINDOW")
-                .map(GlobalSettings::getSettingValue)
-                .orElse("7")
-        );
+        // 2. Configurable window from the settings snapshot
+        int windowDays = settingsService.current().replacementWindowDays();
 
         // 🛠️ Convert java.util.Date to LocalDateTime
         LocalDateTime orderDateTime = order.getCreatedAt().toInstant()
@@ -324,43 +356,17 @@ public class OrderService {
             throw new IllegalStateException("Replacements can only be requested for delivered orders.");
         }
 
-        // 6. Update and Save
-        order.setStatus("REPLACEMENT_REQUESTED");
+        // 6. Update via the state machine
         log.info("Replacement requested for Order ID: {} by User: {}", orderId, email);
-        return orderRepo.save(order);
-    }
-    public double calculateFinalTotal(double subtotal) {
-        // Fetch current tax from DB
-        double taxPercent = Double.parseDouble(
-            settingsRepository.findById("TAX_PERCENTAGE")
-                .map(s -> s.getSettingValue())
-                .orElse("18.0") // Default if not set
-        );
-
-        double taxAmount = (subtotal * taxPercent) / 100;
-        
-        // Check if subtotal qualifies for free shipping
-        double threshold = Double.parseDouble(
-            settingsRepository.findById("FREE_DELIVERY_THRESHOLD")
-                .map(s -> s.getSettingValue())
-                .orElse("500.0")
-        );
-        
-        double shipping = (subtotal >= threshold) ? 0.0 : 50.0; // ₹50 shipping if below threshold
-
-        return subtotal + taxAmount + shipping;
+        return orderStatusService.transition(orderId, OrderStatus.REPLACEMENT_REQUESTED);
     }
-
-
     /**
      * ✨ Update order to DELIVERED
      */
     @Transactional
     public Order markAsDelivered(Long orderId) {
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
+        Order order = orderStatusService.transition(orderId, OrderStatus.DELIVERED);
 
-        order.setStatus("DELIVERED");
         order.setDeliveredAt(LocalDateTime.now()); // Capture delivery time for Return Policy
         
         // If it was a COD order, mark payment as completed now
@@ -373,29 +379,31 @@ public class OrderService {
 
     @Transactional
     public void processPaymentSuccess(Long orderId) {
-        Order order = orderRepo.findById(orderId).orElseThrow();
+        Order order = orderStatusService.transition(orderId, OrderStatus.PAID);
         
         order.setPaymentStatus("COMPLETED");
-        order.setStatus("PAID");
+        issueInvoice(order);
         orderRepo.save(order);
 
-        // 🚀 Automatically send the email
-        emailService.sendOrderConfirmationWithInvoice(order);
+        // 🚀 Email (with PDF) is sent by the outbox workers after commit
+        outboxService.enqueue(OutboxService.ORDER_CONFIRMATION_EMAIL, order.getId(),
+            "order-confirmation:" + order.getId(), Map.of());
     }
 
     @Transactional
     public Order markAsOutForDelivery(Long orderId) {
-        Order order = orderRepo.findById(orderId).orElseThrow();
-        order.setStatus("OUT_FOR_DELIVERY");
+        Order order = orderStatusService.transition(orderId, OrderStatus.OUT_FOR_DELIVERY);
 
-        // 🚀 Trigger Push Notification
-        String userToken = order.getUser().getFcmToken(); // Assume you stored this
+        // 🚀 Queue Push Notification (delivered by the outbox workers)
+        String userToken = order.getUser() != null ? order.getUser().getFcmToken() : null;
         if (userToken != null) {
-            notificationService.sendPushNotification(
-                userToken, 
-                "Your Toy is Nearby! 🚚", 
-                "Order #" + order.getOrderId() + " is out for delivery. Get ready!"
-            );
+            outboxService.enqueue(OutboxService.PUSH_NOTIFICATION, order.getId(),
+                "out-for-delivery-push:" + order.getId(),
+                Map.of(
+                    "token", userToken,
+                    "title", "Your Toy is Nearby! 🚚",
+                    "body", "Order #" + order.getOrderId() + " is out for delivery. Get ready!"
+                ));
         }
 
         return orderRepo.save(order);
@@ -403,37 +411,78 @@ public class OrderService {
 
    @Transactional
     public Order completeOrderPayment(Long orderId) {
-        // 1. Fetch the order
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with ID: " + orderId));
-
-        // 2. Existing Payment Logic: Update Status
+        // 1. Existing Payment Logic: Update Status (CAS, rejects e.g. cancelled orders)
         log.info("Completing payment for Order ID: {}", orderId);
-        order.setStatus("PAID");
+        Order order = orderStatusService.transition(orderId, OrderStatus.PAID);
+
+        // 2. Loyalty points are applied by the outbox workers (coupons were redeemed at placement).
+        // Dedupe keys make a repeated payment callback a no-op.
+
+        // 3. Invoice number is fixed now; the PDF is rendered once by the outbox workers
+        issueInvoice(order);
+
+        // 4. Loyalty points: 1 point per ₹100
+        int points = PricingEngine.pointsFor(PricingEngine.toPaise(order.getTotalAmount()));
+        if (points > 0) {
+            outboxService.enqueue(OutboxService.POINTS_CREDIT, order.getId(),
+                "payment-points:" + order.getId(),
+                Map.of(
+                    "email", order.getUserEmail(),
+                    "points", String.valueOf(points),
+                    "orderId", String.valueOf(order.getOrderId())
+                ));
+        }
 
-        // 3. ✨ NEW: Increment coupon usage if a code was stored during checkout
-        // This now works because we added the field to the Order model above
-        if (order.getCouponCode() != null && !order.getCouponCode().isEmpty()) {
-            try {
-                couponService.incrementUsage(order.getCouponCode());
-            } catch (Exception e) {
-                // We log the error but don't crash the payment if coupon increment fails
-                log.error("Failed to increment coupon usage for code: {}", order.getCouponCode());
-            }
+        return orderRepo.save(order);
+    }
+
+    /**
+     * Assigns the invoice number on first payment and queues the one-time PDF render.
+     */
+    private void issueInvoice(Order order) {
+        if (order.getInvoiceNumber() == null) {
+            LocalDateTime now = LocalDateTime.now();
+            order.setInvoiceNumber(String.format("INV-%d-%06d", now.getYear(), order.getId()));
+            order.setInvoiceDate(now);
         }
+        outboxService.enqueue(OutboxService.INVOICE_RENDER, order.getId(),
+            "invoice:" + order.getId(), Map.of("invoiceNumber", order.getInvoiceNumber()));
+    }
 
-        // 4. Optional: Loyalty points logic
-        userRepo.findByEmail(order.getUserEmail()).ifPresent(user -> {
-            int points = (int) (order.getTotalAmount() / 100);
-            user.setRewardPoints(user.getRewardPoints() + points);
-            userRepo.save(user);
-        });
+    @Transactional
+    public void updateStatus(Long orderId, String status, String adminEmail) {
+        orderStatusService.transition(orderId, status);
+        outboxService.enqueue(OutboxService.AUDIT_LOG, orderId,
+            "audit:" + UUID.randomUUID(),
+            Map.of(
+                "type", "ORDER",
+                "message", "Order #" + orderId + " marked as " + status,
+                "performedBy", adminEmail,
+                "status", "info"
+            ));
+    }
 
+    /**
+     * ✨ Admin refund completion: RETURN_REQUESTED -> RETURNED
+     */
+    @Transactional
+    public Order completeRefund(String orderId) {
+        Order order = orderStatusService.transitionByReference(orderId, OrderStatus.RETURNED);
+        order.setRefundStatus("COMPLETED");
         return orderRepo.save(order);
     }
 
-    public void updateStatus(Long orderId, String status, String adminEmail) {
-        // ... update logic
-        auditService.log("ORDER", "Order #" + orderId + " marked as " + status, adminEmail, "info");
+    /**
+     * ✨ Carrier webhook update. Out-of-order or backwards carrier events are
+     * ignored instead of overwriting a newer status.
+     */
+    public void applyCarrierStatus(String trackingId, OrderStatus status) {
+        orderRepo.findIdByTrackingId(trackingId).ifPresent(id -> {
+            try {
+                orderStatusService.transition(id, status);
+            } catch (InvalidStatusTransitionException e) {
+                log.warn("Ignoring carrier update for AWB {}: {}", trackingId, e.getMessage());
+            }
+        });
     }
 }
\ No newline at end of file
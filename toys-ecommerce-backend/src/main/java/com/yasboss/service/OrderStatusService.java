@@ -0,0 +1,119 @@
+package com.yasboss.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.exception.ConflictException;
+import com.yasboss.exception.InvalidStatusTransitionException;
+import com.yasboss.exception.ResourceNotFoundException;
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderStatus;
+import com.yasboss.repository.ArchivedOrderRepository;
+import com.yasboss.repository.OrderRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Order Status State Machine
+ * Every status write goes through here: the move is validated against
+ * OrderStatus and applied with a compare-and-set UPDATE, so concurrent
+ * admin and webhook updates can no longer silently overwrite each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusService {
+
+    private static final int MAX_CAS_ATTEMPTS = 3;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Moves the order to {@code target} and returns the freshly loaded entity.
+     * Re-applying the current status is a no-op.
+     */
+    @Transactional
+    public Order transition(Long id, OrderStatus target) {
+        for (int attempt = 1; attempt <= MAX_CAS_ATTEMPTS; attempt++) {
+            String current = orderRepository.findStatusById(id)
+                .orElseThrow(() -> notFound(archivedOrderRepository.existsById(id), "Order " + id));
+
+            // An unrecognised stored value gives no safe starting point: refuse rather than guess
+            OrderStatus from = OrderStatus.parse(current).orElseThrow(() -> new InvalidStatusTransitionException(
+                "Order " + id + " has unrecognised status '" + current + "' and cannot move to " + target));
+            if (from == target) {
+                return load(id);
+            }
+            if (!from.canTransitionTo(target)) {
+                throw new InvalidStatusTransitionException(
+                    "Order " + id + " cannot move from " + from + " to " + target);
+            }
+
+            if (orderRepository.compareAndSetStatus(id, current, target.name()) == 1) {
+                log.info("Order {} moved {} -> {}", id, from, target);
+                Order order = load(id);
+                eventPublisher.publishEvent(OrderStatusChangedEvent.transitioned(order, from, target));
+                return order;
+            }
+            // Lost the race: re-read and re-validate against the winner's status
+            log.debug("Status CAS for order {} lost on attempt {}", id, attempt);
+        }
+        throw new InvalidStatusTransitionException("Order " + id + " is being updated concurrently. Please retry.");
+    }
+
+    @Transactional
+    public Order transition(Long id, String target) {
+        return transition(id, OrderStatus.from(target));
+    }
+
+    /**
+     * Same as {@link #transition(Long, OrderStatus)} for the public "YB-..." reference.
+     */
+    @Transactional
+    public Order transitionByReference(String orderReference, OrderStatus target) {
+        Long id = orderRepository.findIdByOrderId(orderReference)
+            .orElseThrow(() -> notFound(archivedOrderRepository.existsByOrderId(orderReference), "Order " + orderReference));
+        return transition(id, target);
+    }
+
+    /**
+     * ✨ One-time cleanup of statuses saved before the state machine: aliases and
+     * odd casing are rewritten to the enum name, so status queries (reports, the
+     * rollup rebuild) match them. Values that map to nothing are left and logged;
+     * transitions refuse to move them until they are corrected by hand.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void normalizeStoredStatuses() {
+        for (OrderRepository.StatusCount row : orderRepository.countGroupedByStatus()) {
+            String stored = row.getStatus();
+            OrderStatus status = OrderStatus.parse(stored).orElse(null);
+            if (status == null) {
+                log.warn("{} orders have unrecognised status '{}'; status changes are refused until it is fixed",
+                    row.getCount(), stored);
+            } else if (!status.name().equals(stored)) {
+                int rows = orderRepository.renameStatus(stored, status.name());
+                log.info("Normalized {} orders from status '{}' to {}", rows, stored, status);
+            }
+        }
+    }
+
+    // Archived orders are finished and read-only: say so instead of a misleading 404
+    private static RuntimeException notFound(boolean archived, String order) {
+        return archived
+            ? new ConflictException(order + " is archived and can no longer change status")
+            : new ResourceNotFoundException(order + " not found");
+    }
+
+    private Order load(Long id) {
+        return orderRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+    }
+}
@@ -0,0 +1,190 @@
+package com.yasboss.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.yasboss.model.Order;
+import com.yasboss.model.OutboxEvent;
+import com.yasboss.model.PointHistory;
+import com.yasboss.repository.OrderRepository;
+import com.yasboss.repository.PointHistoryRepository;
+import com.yasboss.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Outbox Worker Pool
+ * Drains outbox_events on a bounded pool so SMTP, push and loyalty work never
+ * runs on the checkout thread. Delivery is at-least-once: DB effects commit in
+ * the same transaction that marks the event DONE, external calls (email, push)
+ * may repeat if a node dies between sending and acknowledging.
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final AuditService auditService;
+    private final CouponService couponService;
+    private final InvoiceStore invoiceStore;
+    private final SalesRollupService salesRollupService;
+
+    private final ThreadPoolExecutor workers;
+
+    @Value("${outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.backoff-base-ms:2000}")
+    private long backoffBaseMs;
+
+    @Value("${outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public OutboxDispatcher(
+            OutboxService outboxService,
+            TransactionTemplate transactionTemplate,
+            OrderRepository orderRepository,
+            UserRepository userRepository,
+            PointHistoryRepository pointHistoryRepository,
+            EmailService emailService,
+            NotificationService notificationService,
+            AuditService auditService,
+            CouponService couponService,
+            InvoiceStore invoiceStore,
+            SalesRollupService salesRollupService,
+            @Value("${outbox.workers:4}") int workerCount,
+            @Value("${outbox.queue-capacity:100}") int queueCapacity) {
+        this.outboxService = outboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.emailService = emailService;
+        this.notificationService = notificationService;
+        this.auditService = auditService;
+        this.couponService = couponService;
+        this.invoiceStore = invoiceStore;
+        this.salesRollupService = salesRollupService;
+
+        this.workers = new ThreadPoolExecutor(
+            workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat("outbox-%d").setDaemon(true).build());
+        this.workers.prestartAllCoreThreads();
+    }
+
+    /**
+     * Claims only as many events as the pool can queue, so a backlog stays in
+     * the table (visible to other nodes) instead of piling up in memory.
+     */
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        int capacity = Math.min(batchSize, workers.getQueue().remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<OutboxEvent> claimed = outboxService.claimBatch(capacity, Duration.ofSeconds(leaseSeconds));
+        for (OutboxEvent event : claimed) {
+            workers.execute(() -> process(event));
+        }
+    }
+
+    private void process(OutboxEvent event) {
+        try {
+            if (isDatabaseEffect(event.getEventType())) {
+                // Acknowledge first, then apply, in one transaction: a retry can never apply it twice,
+                // and an event a rebuild already closed is skipped instead of being counted again
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!outboxService.completeIfProcessing(event.getId())) {
+                        log.debug("Outbox event {} was already closed, skipping", event.getDedupeKey());
+                        return;
+                    }
+                    handle(event);
+                });
+            } else {
+                handle(event);
+                outboxService.markDone(event.getId());
+            }
+        } catch (Exception e) {
+            outboxService.markFailed(event.getId(), e.getMessage(), maxAttempts, Duration.ofMillis(backoffBaseMs));
+        }
+    }
+
+    private boolean isDatabaseEffect(String eventType) {
+        return OutboxService.AUDIT_LOG.equals(eventType)
+            || OutboxService.COUPON_REDEMPTION.equals(eventType)
+            || OutboxService.POINTS_CREDIT.equals(eventType)
+            || OutboxService.SALES_ROLLUP.equals(eventType);
+    }
+
+    private void handle(OutboxEvent event) {
+        Map<String, String> payload = outboxService.readPayload(event);
+
+        switch (event.getEventType()) {
+            case OutboxService.ORDER_CONFIRMATION_EMAIL ->
+                emailService.sendOrderConfirmationWithInvoice(loadOrderWithItems(event));
+            case OutboxService.INVOICE_RENDER ->
+                invoiceStore.getOrRender(loadOrderWithItems(event));
+            case OutboxService.PUSH_NOTIFICATION ->
+                notificationService.sendPushNotification(payload.get("token"), payload.get("title"), payload.get("body"));
+            case OutboxService.AUDIT_LOG ->
+                auditService.log(payload.get("type"), payload.get("message"), payload.get("performedBy"), payload.get("status"));
+            case OutboxService.COUPON_REDEMPTION ->
+                couponService.incrementUsage(payload.get("code"));
+            case OutboxService.POINTS_CREDIT -> creditPoints(payload);
+            case OutboxService.SALES_ROLLUP ->
+                salesRollupService.apply(Long.valueOf(event.getAggregateId()), Integer.parseInt(payload.get("sign")));
+            default -> throw new IllegalStateException("No handler for outbox event type " + event.getEventType());
+        }
+    }
+
+    private Order loadOrderWithItems(OutboxEvent event) {
+        return orderRepository.findWithItemsById(Long.valueOf(event.getAggregateId()))
+            .orElseThrow(() -> new IllegalStateException("Order not found: " + event.getAggregateId()));
+    }
+
+    private void creditPoints(Map<String, String> payload) {
+        String email = payload.get("email");
+        int points = Integer.parseInt(payload.get("points"));
+
+        userRepository.findByEmail(email).ifPresent(user -> {
+            int currentPoints = user.getRewardPoints() != null ? user.getRewardPoints() : 0;
+            user.setRewardPoints(currentPoints + points);
+            userRepository.save(user);
+
+            PointHistory history = new PointHistory();
+            history.setUserEmail(email);
+            history.setPointsChanged(points);
+            history.setTransactionType("ORDER_PAYMENT");
+            history.setDescription("Points earned from Order: " + payload.get("orderId"));
+            pointHistoryRepository.save(history);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,144 @@
+package com.yasboss.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.yasboss.model.OutboxEvent;
+import com.yasboss.repository.OutboxEventRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    // Side effects handled by OutboxDispatcher
+    public static final String ORDER_CONFIRMATION_EMAIL = "ORDER_CONFIRMATION_EMAIL";
+    public static final String PUSH_NOTIFICATION = "PUSH_NOTIFICATION";
+    public static final String AUDIT_LOG = "AUDIT_LOG";
+    public static final String COUPON_REDEMPTION = "COUPON_REDEMPTION";
+    public static final String POINTS_CREDIT = "POINTS_CREDIT";
+    public static final String INVOICE_RENDER = "INVOICE_RENDER";
+    public static final String SALES_ROLLUP = "SALES_ROLLUP";
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    private final OutboxEventRepository outboxRepository;
+
+    /**
+     * ✨ Record a side effect in the caller's transaction.
+     * MANDATORY: the event must commit (or roll back) together with the order change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Object aggregateId, String dedupeKey, Map<String, String> payload) {
+        if (outboxRepository.existsByDedupeKey(dedupeKey)) {
+            log.debug("Outbox event {} already recorded, skipping", dedupeKey);
+            return;
+        }
+
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId != null ? aggregateId.toString() : null);
+        event.setDedupeKey(dedupeKey);
+        event.setPayload(writePayload(payload));
+        event.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(event);
+    }
+
+    /**
+     * Locks up to {@code limit} due events and leases them to this node.
+     */
+    @Transactional
+    public List<OutboxEvent> claimBatch(int limit, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = outboxRepository.lockDueEvents(now, limit);
+        for (OutboxEvent event : events) {
+            event.setStatus("PROCESSING");
+            event.setLockedUntil(now.plus(lease));
+            event.setAttempts(event.getAttempts() + 1);
+        }
+        return outboxRepository.saveAll(events);
+    }
+
+    @Transactional
+    public void markDone(Long eventId) {
+        outboxRepository.findById(eventId).ifPresent(event -> {
+            event.setStatus("DONE");
+            event.setLockedUntil(null);
+            event.setLastError(null);
+            event.setProcessedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * ✨ Conditional acknowledgement for DB-effect events: the caller runs it as the
+     * first statement of the effect's transaction and skips the effect when it
+     * returns false. The row lock it takes also keeps a rebuild from superseding
+     * the event while the effect is being applied.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean completeIfProcessing(Long eventId) {
+        return outboxRepository.completeIfProcessing(eventId) == 1;
+    }
+
+    /**
+     * Schedules a retry with exponential backoff, or parks the event as FAILED
+     * once {@code maxAttempts} is reached.
+     */
+    @Transactional
+    public void markFailed(Long eventId, String error, int maxAttempts, Duration baseBackoff) {
+        outboxRepository.findById(eventId).ifPresent(event -> {
+            if (!"PROCESSING".equals(event.getStatus())) {
+                return; // Closed meanwhile (e.g. superseded by a rollup rebuild); reopening it would apply it twice
+            }
+            event.setLockedUntil(null);
+            event.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus("FAILED");
+                log.error("Outbox event {} gave up after {} attempts: {}", event.getDedupeKey(), event.getAttempts(), error);
+                return;
+            }
+
+            long factor = 1L << Math.min(event.getAttempts() - 1, 20);
+            Duration delay = baseBackoff.multipliedBy(factor);
+            if (delay.compareTo(MAX_BACKOFF) > 0) {
+                delay = MAX_BACKOFF;
+            }
+            event.setStatus("PENDING");
+            event.setNextAttemptAt(LocalDateTime.now().plus(delay));
+            log.warn("Outbox event {} failed (attempt {}), retrying in {}s", event.getDedupeKey(), event.getAttempts(), delay.toSeconds());
+        });
+    }
+
+    public Map<String, String> readPayload(OutboxEvent event) {
+        if (event.getPayload() == null) {
+            return Map.of();
+        }
+        try {
+            return MAPPER.readValue(event.getPayload(), new TypeReference<Map<String, String>>() {});
+        } catch (JacksonException e) {
+            throw new IllegalStateException("Unreadable outbox payload for " + event.getDedupeKey(), e);
+        }
+    }
+
+    private String writePayload(Map<String, String> payload) {
+        try {
+            return MAPPER.writeValueAsString(payload);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
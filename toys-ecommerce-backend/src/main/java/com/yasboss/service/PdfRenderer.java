@@ -0,0 +1,151 @@
+package com.yasboss.service;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openpdf.text.Document;
+import org.openpdf.text.DocumentException;
+import org.openpdf.text.Element;
+import org.openpdf.text.Font;
+import org.openpdf.text.FontFactory;
+import org.openpdf.text.Image;
+import org.openpdf.text.Phrase;
+import org.openpdf.text.Rectangle;
+import org.openpdf.text.pdf.ColumnText;
+import org.openpdf.text.pdf.PdfContentByte;
+import org.openpdf.text.pdf.PdfPCell;
+import org.openpdf.text.pdf.PdfPTable;
+import org.openpdf.text.pdf.PdfPageEventHelper;
+import org.openpdf.text.pdf.PdfWriter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Shared PDF Rendering Resources
+ * Fonts, the decoded logo and table header prototypes are built once at startup
+ * and reused by every invoice and report. Documents get a stateless footer page
+ * event instead of re-adding footer text on each render.
+ */
+@Component
+@Slf4j
+public class PdfRenderer {
+
+    private static final String LOGO_PATH = "static/images/logo.png";
+    private static final String FOOTER_TEXT = "YAS BOSS TOYS | www.yasboss.com";
+
+    private final Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
+    private final Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10);
+    private final Font bodyFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+    private final Font footerFont = FontFactory.getFont(FontFactory.HELVETICA, 8);
+
+    private final byte[] logoBytes;
+    private final Image logo; // Decoded once; callers get a copy they may scale or align
+
+    private final PdfPageEventHelper footer = new PdfPageEventHelper() {
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            PdfContentByte canvas = writer.getDirectContent();
+            float x = (document.left() + document.right()) / 2;
+            ColumnText.showTextAligned(canvas, Element.ALIGN_CENTER,
+                new Phrase(FOOTER_TEXT + " | Page " + writer.getPageNumber(), footerFont),
+                x, document.bottom() - 20, 0);
+        }
+    };
+
+    /**
+     * A table layout compiled once: column widths plus styled header cells.
+     * {@link #newTable()} clones the prototypes, so layouts are safe to share across threads.
+     */
+    public static final class TableLayout {
+        private final float[] widths;
+        private final List<PdfPCell> headerCells;
+
+        private TableLayout(float[] widths, List<PdfPCell> headerCells) {
+            this.widths = widths;
+            this.headerCells = headerCells;
+        }
+
+        public PdfPTable newTable() {
+            PdfPTable table = new PdfPTable(widths);
+            table.setWidthPercentage(100);
+            table.setSpacingBefore(10f);
+            table.setHeaderRows(1); // Repeats on every page
+            for (PdfPCell prototype : headerCells) {
+                table.addCell(new PdfPCell(prototype));
+            }
+            return table;
+        }
+    }
+
+    public PdfRenderer() {
+        byte[] bytes = null;
+        Image decoded = null;
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            bytes = in.readAllBytes();
+            decoded = Image.getInstance(bytes);
+        } catch (Exception e) {
+            log.warn("Logo {} not available, PDFs fall back to text headers: {}", LOGO_PATH, e.getMessage());
+        }
+        this.logoBytes = bytes;
+        this.logo = decoded;
+    }
+
+    /**
+     * Opens a document on {@code out} with the shared footer attached.
+     */
+    public Document open(OutputStream out, Rectangle pageSize) {
+        Document document = new Document(pageSize, 36, 36, 36, 54);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setPageEvent(footer);
+        } catch (DocumentException e) {
+            throw new IllegalStateException("Could not open PDF writer", e);
+        }
+        document.open();
+        return document;
+    }
+
+    public TableLayout layout(float[] widths, String... headers) {
+        List<PdfPCell> cells = new ArrayList<>(headers.length);
+        for (String header : headers) {
+            PdfPCell cell = new PdfPCell(new Phrase(header, headerFont));
+            cell.setGrayFill(0.9f);
+            cell.setPadding(4f);
+            cells.add(cell);
+        }
+        return new TableLayout(widths.clone(), List.copyOf(cells));
+    }
+
+    /**
+     * Copy of the decoded logo scaled to fit, or null when the logo is missing.
+     */
+    public Image logo(float maxWidth, float maxHeight) {
+        if (logo == null) {
+            return null;
+        }
+        Image copy = Image.getInstance(logo);
+        copy.scaleToFit(maxWidth, maxHeight);
+        return copy;
+    }
+
+    // Raw PNG bytes for non-PDF outputs (Excel)
+    public byte[] logoBytes() {
+        return logoBytes;
+    }
+
+    public Font titleFont() {
+        return titleFont;
+    }
+
+    public Font headerFont() {
+        return headerFont;
+    }
+
+    public Font bodyFont() {
+        return bodyFont;
+    }
+}
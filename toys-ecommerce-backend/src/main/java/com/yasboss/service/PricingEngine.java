@@ -0,0 +1,243 @@
+package com.yasboss.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.yasboss.exception.ResourceNotFoundException;
+import com.yasboss.repository.ProductRepository;
+
+/**
+ * ✨ Pricing Engine
+ * The one place that prices a basket: cart breakdown, checkout, order placement and
+ * flash sale orders all use it, so the customer is charged what the cart showed.
+ * Money is whole paise in longs and rates are basis points (18% = 1800), so there
+ * are no boxed Doubles and no float drift; rupees appear only at the edges.
+ * <p>
+ * One pass over the lines accumulates the subtotal and the tax base (paise × rate).
+ * Coupons are a flat percentage, so the post-coupon tax is the same base scaled by
+ * (1 − coupon), with no second pass. Totals follow the cart:
+ * subtotal − coupon + GST + shipping, with shipping waived when the subtotal
+ * reaches FREE_DELIVERY_THRESHOLD.
+ * Orders take unit prices from {@link #catalogFor}, never from the request.
+ */
+@Service
+public class PricingEngine {
+
+    private static final long BASIS_POINTS = 10_000;
+    private static final long PAISE_PER_POINT = 10_000; // 1 loyalty point per ₹100
+
+    private final SettingsService settingsService;
+    private final CouponService couponService;
+    private final ProductRepository productRepository;
+
+    public PricingEngine(SettingsService settingsService, CouponService couponService,
+                         ProductRepository productRepository) {
+        this.settingsService = settingsService;
+        this.couponService = couponService;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * A new calculation against the current settings snapshot.
+     */
+    public Calculation start() {
+        return new Calculation(settingsService.current());
+    }
+
+    /**
+     * HSN codes for per-HSN tax. Skips the query entirely while no GST_RATE_* override is set.
+     */
+    public Map<Long, String> hsnCodesFor(Collection<Long> productIds) {
+        if (productIds.isEmpty() || settingsService.current().hsnTaxRates().isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> codes = new HashMap<>();
+        for (Object[] row : productRepository.findHsnCodesByIdIn(productIds)) {
+            if (row[1] != null) {
+                codes.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * Catalog unit prices (selling price, else list price), HSN codes, names and images
+     * in one query, for building and pricing order lines without trusting the client.
+     */
+    public Catalog catalogFor(Collection<Long> productIds) {
+        Map<Long, Catalog.Entry> entries = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Object[] row : productRepository.findPricingByIdIn(productIds)) {
+                entries.put((Long) row[0],
+                    new Catalog.Entry((Double) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+        }
+        return new Catalog(entries);
+    }
+
+    public static final class Catalog {
+        private record Entry(Double unitPrice, String hsnCode, String name, String imageUrl) {}
+
+        private final Map<Long, Entry> entries;
+
+        private Catalog(Map<Long, Entry> entries) {
+            this.entries = entries;
+        }
+
+        public Double unitPrice(Long productId) {
+            Entry entry = entries.get(productId);
+            if (entry == null || entry.unitPrice() == null) {
+                throw new ResourceNotFoundException("Product " + productId + " is not available");
+            }
+            return entry.unitPrice();
+        }
+
+        public String hsnCode(Long productId) {
+            Entry entry = entries.get(productId);
+            return entry != null ? entry.hsnCode() : null;
+        }
+
+        public String name(Long productId) {
+            Entry entry = entries.get(productId);
+            return entry != null ? entry.name() : null;
+        }
+
+        public String imageUrl(Long productId) {
+            Entry entry = entries.get(productId);
+            return entry != null ? entry.imageUrl() : null;
+        }
+    }
+
+    // --- 🧮 Calculation ---
+
+    /**
+     * Accumulates lines, then {@link #finish(String)} applies coupon, tax and shipping.
+     * Not thread-safe; one per request.
+     */
+    public final class Calculation {
+        private final SettingsService.Snapshot settings;
+        private final long defaultRateBp;
+
+        private long subtotalPaise;
+        private long taxBase; // Σ line paise × rate basis points
+        private int units;
+
+        private Calculation(SettingsService.Snapshot settings) {
+            this.settings = settings;
+            this.defaultRateBp = toBasisPoints(settings.taxPercentage());
+        }
+
+        public Calculation addLine(Double unitPrice, int quantity, String hsnCode) {
+            long linePaise = toPaise(unitPrice) * quantity;
+            subtotalPaise += linePaise;
+            taxBase += linePaise * rateFor(hsnCode);
+            units += quantity;
+            return this;
+        }
+
+        private long rateFor(String hsnCode) {
+            if (hsnCode == null) {
+                return defaultRateBp;
+            }
+            Double rate = settings.hsnTaxRates().get(hsnCode);
+            return rate != null ? toBasisPoints(rate) : defaultRateBp;
+        }
+
+        public long subtotalPaise() {
+            return subtotalPaise;
+        }
+
+        /**
+         * @param couponCode optional; validated against the subtotal (throws like CouponService)
+         */
+        public Quote finish(String couponCode) {
+            long couponBp = 0;
+            CouponIndex.ActiveCoupon coupon = null;
+            if (couponCode != null && !couponCode.isEmpty()) {
+                coupon = couponService.validateCoupon(couponCode, toRupees(subtotalPaise));
+                couponBp = Math.min(BASIS_POINTS, Math.max(0, coupon.discountPercent() * 100L));
+            }
+
+            long discountPaise = roundDiv(subtotalPaise * couponBp, BASIS_POINTS);
+            long taxPaise = roundDiv(taxBase * (BASIS_POINTS - couponBp), BASIS_POINTS * BASIS_POINTS);
+            long shippingPaise = units == 0 || subtotalPaise >= toPaise(settings.freeDeliveryThreshold())
+                ? 0 : toPaise(settings.shippingFee());
+            long totalPaise = subtotalPaise - discountPaise + taxPaise + shippingPaise;
+
+            return new Quote(subtotalPaise, discountPaise, taxPaise, shippingPaise, totalPaise, pointsFor(totalPaise), coupon);
+        }
+    }
+
+    /**
+     * A priced basket in paise, with rupee views for the entity fields.
+     * {@code coupon} is the validated coupon (null if none); placing the order redeems it.
+     */
+    public record Quote(
+            long subtotalPaise,
+            long discountPaise,
+            long taxPaise,
+            long shippingPaise,
+            long totalPaise,
+            int pointsToEarn,
+            CouponIndex.ActiveCoupon coupon) {
+
+        public double total() {
+            return toRupees(totalPaise);
+        }
+
+        public double discount() {
+            return toRupees(discountPaise);
+        }
+
+        public BigDecimal tax() {
+            return BigDecimal.valueOf(taxPaise, 2);
+        }
+
+        // Intra-state GST: CGST gets the odd paisa
+        public BigDecimal cgst() {
+            return BigDecimal.valueOf(taxPaise - taxPaise / 2, 2);
+        }
+
+        public BigDecimal sgst() {
+            return BigDecimal.valueOf(taxPaise / 2, 2);
+        }
+
+        public Map<String, Double> toBreakdown() {
+            Map<String, Double> breakdown = new LinkedHashMap<>();
+            breakdown.put("subtotal", toRupees(subtotalPaise));
+            breakdown.put("discount", toRupees(discountPaise));
+            breakdown.put("tax", toRupees(taxPaise));
+            breakdown.put("shipping", toRupees(shippingPaise));
+            breakdown.put("total", toRupees(totalPaise));
+            return breakdown;
+        }
+    }
+
+    // --- 💱 Fixed-Point Helpers ---
+
+    public static long toPaise(Double rupees) {
+        return rupees != null ? Math.round(rupees * 100) : 0;
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+
+    public static int pointsFor(long totalPaise) {
+        return (int) Math.max(0, totalPaise / PAISE_PER_POINT);
+    }
+
+    private static long toBasisPoints(double percent) {
+        return Math.round(percent * 100);
+    }
+
+    // Half-up for the non-negative amounts used here
+    private static long roundDiv(long value, long divisor) {
+        return (value + divisor / 2) / divisor;
+    }
+}
@@ -13,6 +13,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ import com.yasboss.exception.ResourceNotFoundException;
 import com.yasboss.model.Product;
 import com.yasboss.model.ProductImage;
 import com.yasboss.repository.ProductImageRepository;
+import com.yasboss.event.StockChangedEvent;
 import com.yasboss.repository.ProductRepository;
 
 import lombok.extern.slf4j.Slf4j;
@@ -44,6 +46,9 @@ public class ProductService {
     @Autowired
     private StorageService storageService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     private final String UPLOAD_DIR = "uploads/products/";
 
     ProductService(AuditService auditService) {
@@ -155,7 +160,9 @@ public class ProductService {
         @CacheEvict(value = "featuredProducts", allEntries = true)
     })
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(StockChangedEvent.of(saved));
+        return saved;
     }
 
     
@@ -178,6 +185,7 @@ public class ProductService {
             
             // 2. Delete the database record
             productRepository.deleteById(productId);
+            eventPublisher.publishEvent(StockChangedEvent.deleted(productId));
         });
     }
 
@@ -273,11 +281,14 @@ public class ProductService {
         // This is what React will use to load the image
         product.setImageUrl("/uploads/products/" + fileName);
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(StockChangedEvent.of(saved));
+        return saved;
     }
 
     public Product addProduct(Product product, String adminEmail) {
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(StockChangedEvent.of(saved));
         auditService.log("INVENTORY", "New Asset Deployed: " + saved.getName(), adminEmail, "success");
         return saved;
     }
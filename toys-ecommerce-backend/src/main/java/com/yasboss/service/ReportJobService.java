@@ -0,0 +1,204 @@
+package com.yasboss.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.yasboss.dto.ReportJobStatus;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Asynchronous Report Jobs
+ * Long exports run on a small dedicated pool instead of a Tomcat thread and land
+ * in a file under {@code reports.job-dir}. Identical requests (same type, range
+ * and format) share one job while it runs and until its result expires.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private static final class ReportJob {
+        final String id = UUID.randomUUID().toString();
+        final String key;
+        final String type;
+        final String start;
+        final String end;
+        final String format;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        volatile String status = "QUEUED";
+        volatile CountingOutputStream progress;
+        volatile Path file;
+        volatile LocalDateTime finishedAt;
+        volatile LocalDateTime expiresAt;
+        volatile String error;
+
+        ReportJob(String key, String type, String start, String end, String format) {
+            this.key = key;
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.format = format;
+        }
+
+        boolean isReusable() {
+            return !"FAILED".equals(status) && (expiresAt == null || expiresAt.isAfter(LocalDateTime.now()));
+        }
+    }
+
+    private final ReportService reportService;
+    private final Path jobDir;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ReportJob> jobsById = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    @Value("${reports.job-ttl-minutes:60}")
+    private long ttlMinutes;
+
+    public ReportJobService(ReportService reportService,
+                            @Value("${reports.job-dir:${user.dir}/report-jobs/}") String jobDir,
+                            @Value("${reports.job-workers:2}") int workers,
+                            @Value("${reports.job-queue-capacity:20}") int queueCapacity) throws IOException {
+        this.reportService = reportService;
+        this.jobDir = Paths.get(jobDir).toAbsolutePath().normalize();
+        Files.createDirectories(this.jobDir);
+        this.executor = new ThreadPoolExecutor(
+            workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat("report-job-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Returns the running or finished job for the same request, or starts a new one.
+     * Throws RejectedExecutionException when the job queue is full.
+     */
+    public ReportJobStatus submit(String type, String start, String end, String format) {
+        String normalizedFormat = format.toLowerCase();
+        String key = type + "|" + start + "|" + end + "|" + normalizedFormat;
+
+        ReportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.isReusable()) {
+                return existing;
+            }
+            ReportJob created = new ReportJob(k, type, start, end, normalizedFormat);
+            jobsById.put(created.id, created);
+            try {
+                executor.execute(() -> run(created));
+            } catch (RejectedExecutionException e) {
+                // Leave the previous entry (if any) untouched and surface "busy" to the caller
+                jobsById.remove(created.id);
+                throw new RejectedExecutionException("Report queue is full. Please retry shortly.");
+            }
+            return created;
+        });
+        return toStatus(job);
+    }
+
+    public Optional<ReportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobsById.get(jobId)).map(this::toStatus);
+    }
+
+    /**
+     * The finished result file, if the job is DONE and not yet expired.
+     */
+    public Optional<Path> getResult(String jobId) {
+        ReportJob job = jobsById.get(jobId);
+        if (job == null || !"DONE".equals(job.status) || !job.isReusable()) {
+            return Optional.empty();
+        }
+        return Optional.of(job.file);
+    }
+
+    public String fileNameFor(String jobId) {
+        ReportJob job = jobsById.get(jobId);
+        return job == null ? null : "yasboss_" + job.type + "_" + job.start + "." + extensionOf(job.format);
+    }
+
+    private void run(ReportJob job) {
+        job.status = "RUNNING";
+        Path target = jobDir.resolve(job.id + "." + extensionOf(job.format));
+        try (OutputStream file = Files.newOutputStream(target);
+             CountingOutputStream out = new CountingOutputStream(file)) {
+            job.progress = out;
+            switch (job.format) {
+                case "excel" -> reportService.writeExcel(job.type, job.start, job.end, out);
+                case "pdf" -> reportService.writePdf(job.type, job.start, job.end, out);
+                default -> reportService.writeCsv(job.type, job.start, job.end, out);
+            }
+            job.file = target;
+            job.status = "DONE";
+            log.info("Report job {} ({}) finished, {} bytes", job.id, job.key, out.getCount());
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            deleteQuietly(target);
+            log.error("Report job {} ({}) failed: {}", job.id, job.key, e.getMessage());
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.expiresAt = job.finishedAt.plusMinutes(ttlMinutes);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reports.job-cleanup-interval-ms:300000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        jobsById.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) {
+                return false;
+            }
+            jobsByKey.remove(job.key, job);
+            if (job.file != null) {
+                deleteQuietly(job.file);
+            }
+            return true;
+        });
+    }
+
+    private ReportJobStatus toStatus(ReportJob job) {
+        CountingOutputStream progress = job.progress;
+        return new ReportJobStatus(
+            job.id, job.type, job.start, job.end, job.format, job.status,
+            progress != null ? progress.getCount() : 0,
+            job.createdAt, job.finishedAt, job.expiresAt, job.error,
+            "DONE".equals(job.status) ? "/api/admin/reports/jobs/" + job.id + "/download" : null);
+    }
+
+    private static String extensionOf(String format) {
+        return switch (format) {
+            case "excel" -> "xlsx";
+            case "pdf" -> "pdf";
+            default -> "csv";
+        };
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete report file {}", file);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
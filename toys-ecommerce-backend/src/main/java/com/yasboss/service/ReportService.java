@@ -1,9 +1,17 @@
 package com.yasboss.service;
 
-import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.poi.ss.usermodel.ClientAnchor;
 import org.apache.poi.ss.usermodel.CreationHelper;
 import org.apache.poi.ss.usermodel.Drawing;
@@ -11,102 +19,315 @@ import org.apache.poi.ss.usermodel.Picture;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.openpdf.text.Document;
 import org.openpdf.text.Image;
 import org.openpdf.text.PageSize;
 import org.openpdf.text.Paragraph;
+import org.openpdf.text.Phrase;
 import org.openpdf.text.pdf.PdfPTable;
-import org.openpdf.text.pdf.PdfWriter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.yasboss.model.DailySalesRollup;
 import com.yasboss.repository.OrderRepository;
+import com.yasboss.repository.OrderRepository.GstReportProjection;
 
 @Service
 public class ReportService {
 
+    private static final int EXCEL_ROW_WINDOW = 100;
+    private static final int PDF_ROWS_PER_FLUSH = 50; // About one landscape A4 page
+    // Report type served from the daily sales rollup rather than order lines
+    public static final String SALES_SUMMARY = "sales";
+    private static final String[] SALES_COLUMNS = {
+        "Date", "HSN", "Category", "GST %", "Orders", "Qty",
+        "Taxable Value", "CGST", "SGST", "Revenue"
+    };
+    private static final String[] GST_COLUMNS = {
+        "Order ID", "Date", "Customer", "Product", "HSN", "Qty",
+        "Unit Price", "Taxable Value", "CGST", "SGST", "Total"
+    };
+
     @Autowired
     private OrderRepository orderRepository;
 
-    public byte[] generateExcel(String type, String start, String end) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    private final PdfRenderer pdfRenderer;
+    private final PdfRenderer.TableLayout gstLayout;
+    private final PdfRenderer.TableLayout salesLayout;
+
+    public ReportService(PdfRenderer pdfRenderer) {
+        this.pdfRenderer = pdfRenderer;
+        this.gstLayout = pdfRenderer.layout(
+            new float[] {1.2f, 1.5f, 2.5f, 3f, 1.2f, 0.8f, 1.4f, 1.5f, 1.2f, 1.2f, 1.5f}, GST_COLUMNS);
+        this.salesLayout = pdfRenderer.layout(
+            new float[] {1.5f, 1.2f, 2f, 1f, 1f, 1f, 1.5f, 1.3f, 1.3f, 1.5f}, SALES_COLUMNS);
+    }
+
+    /**
+     * ✨ Streams the GST Excel report straight to {@code out}.
+     * Rows come from a JDBC cursor and only the last {@link #EXCEL_ROW_WINDOW} rows stay
+     * in memory (older ones are flushed to a compressed temp file), so heap use is flat
+     * however long the range is.
+     */
+    @Transactional(readOnly = true)
+    public void writeExcel(String type, String start, String end, OutputStream out) throws IOException {
+        if (SALES_SUMMARY.equalsIgnoreCase(type)) {
+            writeSalesExcel(start, end, out);
+            return;
+        }
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try (Stream<GstReportProjection> rows = orderRepository.streamGstReportData(startOf(start), endOf(end))) {
             Sheet sheet = workbook.createSheet("GST Sales Report");
 
-            // 1. Add Logo Image
-            try (InputStream is = new ClassPathResource("static/images/logo.png").getInputStream()) {
-                byte[] bytes = IOUtils.toByteArray(is);
-                int pictureIdx = workbook.addPicture(bytes, Workbook.PICTURE_TYPE_PNG);
-                CreationHelper helper = workbook.getCreationHelper();
-                Drawing<?> drawing = sheet.createDrawingPatriarch();
-                ClientAnchor anchor = helper.createClientAnchor();
-                
-                // Position at Col 0, Row 0
-                anchor.setCol1(0);
-                anchor.setRow1(0);
-                Picture pict = drawing.createPicture(anchor, pictureIdx);
-                pict.resize(1.0); // Keep original size
-            }
+            // 1. Logo, then the header row below it (Row 5)
+            addLogo(workbook, sheet);
+            addHeader(sheet, GST_COLUMNS);
 
-            // 2. Adjust data rows to start below the logo (e.g., Row 5)
-            String[] columns = {"Invoice No", "Date", "Customer", "Total"};
-            Row headerRow = sheet.createRow(5); 
-            // ... (rest of header and data logic)
+            // 3. Data rows, one per order line
+            int[] rowIndex = {6};
+            rows.forEach(r -> {
+                Row row = sheet.createRow(rowIndex[0]++);
+                row.createCell(0).setCellValue(r.getOrderId());
+                row.createCell(1).setCellValue(r.getOrderDate() != null ? r.getOrderDate().toLocalDate().toString() : "");
+                row.createCell(2).setCellValue(r.getCustomerName());
+                row.createCell(3).setCellValue(r.getProductName());
+                row.createCell(4).setCellValue(r.getHsnCode());
+                row.createCell(5).setCellValue(r.getQuantity() != null ? r.getQuantity() : 0);
+                row.createCell(6).setCellValue(valueOf(r.getUnitPrice()));
+                row.createCell(7).setCellValue(valueOf(r.getTaxableValue()));
+                row.createCell(8).setCellValue(valueOf(r.getCgst()));
+                row.createCell(9).setCellValue(valueOf(r.getSgst()));
+                row.createCell(10).setCellValue(valueOf(r.getTotalAmount()));
+            });
 
             workbook.write(out);
-            return out.toByteArray();
-        } catch (Exception e) {
-            return new byte[0];
+        } finally {
+            workbook.dispose(); // Delete the temp files behind the flushed rows
+            workbook.close();
         }
     }
 
+    /**
+     * ✨ Daily sales per HSN code and category, read from the rollup: one row per
+     * day and key instead of one per order line, so no cursor or row window is needed.
+     */
+    private void writeSalesExcel(String start, String end, OutputStream out) throws IOException {
+        List<DailySalesRollup> rollup = salesRollupService.findRange(LocalDate.parse(start), LocalDate.parse(end));
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW)) {
+            Sheet sheet = workbook.createSheet("Sales Summary");
+            addLogo(workbook, sheet);
+            addHeader(sheet, SALES_COLUMNS);
+
+            int rowIndex = 6;
+            for (DailySalesRollup r : rollup) {
+                Row row = sheet.createRow(rowIndex++);
+                row.createCell(0).setCellValue(r.getSaleDate().toString());
+                row.createCell(1).setCellValue(r.getHsnCode());
+                row.createCell(2).setCellValue(r.getCategory());
+                row.createCell(3).setCellValue(valueOf(r.getTaxRate()));
+                row.createCell(4).setCellValue(r.getOrderCount());
+                row.createCell(5).setCellValue(r.getQuantity());
+                row.createCell(6).setCellValue(valueOf(r.getTaxableValue()));
+                row.createCell(7).setCellValue(valueOf(r.getCgst()));
+                row.createCell(8).setCellValue(valueOf(r.getSgst()));
+                row.createCell(9).setCellValue(valueOf(r.getRevenue()));
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+
+    private void addLogo(Workbook workbook, Sheet sheet) {
+        byte[] bytes = pdfRenderer.logoBytes();
+        if (bytes != null) {
+            int pictureIdx = workbook.addPicture(bytes, Workbook.PICTURE_TYPE_PNG);
+            CreationHelper helper = workbook.getCreationHelper();
+            Drawing<?> drawing = sheet.createDrawingPatriarch();
+            ClientAnchor anchor = helper.createClientAnchor();
+
+            // Position at Col 0, Row 0
+            anchor.setCol1(0);
+            anchor.setRow1(0);
+            Picture pict = drawing.createPicture(anchor, pictureIdx);
+            pict.resize(1.0); // Keep original size
+        }
+    }
+
+    private static void addHeader(Sheet sheet, String[] columns) {
+        Row headerRow = sheet.createRow(5);
+        for (int i = 0; i < columns.length; i++) {
+            headerRow.createCell(i).setCellValue(columns[i]);
+        }
+    }
+
+    private static double valueOf(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0d;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0d;
+    }
+
+    private static LocalDateTime startOf(String date) {
+        return LocalDate.parse(date).atStartOfDay();
+    }
+
+    // BETWEEN is inclusive, so the end day runs to its last instant
+    private static LocalDateTime endOf(String date) {
+        return LocalDate.parse(date).atTime(LocalTime.MAX);
+    }
+
     // --- 🔴 PDF WITH LOGO ---
-    public byte[] generatePdf(String type, String start, String end) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4.rotate());
+    /**
+     * ✨ Streams the GST PDF report to {@code out} from the DB cursor.
+     * The table is marked incomplete and handed to the document every
+     * {@link #PDF_ROWS_PER_FLUSH} rows: finished rows are laid out, written and
+     * dropped, so only about one page of cells is ever held in memory and the
+     * first pages reach the client while later rows are still being read.
+     */
+    @Transactional(readOnly = true)
+    public void writePdf(String type, String start, String end, OutputStream out) {
+        boolean salesSummary = SALES_SUMMARY.equalsIgnoreCase(type);
+        Document document = pdfRenderer.open(out, PageSize.A4.rotate());
         try {
-            PdfWriter.getInstance(document, out);
-            document.open();
-
-            // 1. Add Logo
-            try {
-                Image logo = Image.getInstance(new ClassPathResource("static/images/logo.png").getURL());
-                logo.scaleToFit(100, 100);
+            // 1. Add Logo (decoded once by PdfRenderer)
+            Image logo = pdfRenderer.logo(100, 100);
+            if (logo != null) {
                 logo.setAlignment(Image.ALIGN_RIGHT);
                 document.add(logo);
-            } catch (Exception e) {
-                document.add(new Paragraph("YASBOSS TOYS")); // Fallback text
+            } else {
+                document.add(new Paragraph("YASBOSS TOYS", pdfRenderer.titleFont())); // Fallback text
             }
 
-            document.add(new Paragraph("GST SALES REPORT (" + start + " to " + end + ")"));
-        
-        // Create the Table
-        PdfPTable table = new PdfPTable(7); // 7 columns based on your image
-        table.setWidthPercentage(100);
-        table.setSpacingBefore(10f);
-
-        // Header Cells
-        String[] headers = {"GSTIN", "Receiver", "Inv No", "Date", "Value", "Taxable", "Total"};
-        for (String header : headers) {
-            table.addCell(header);
-        }
+            String title = salesSummary ? "SALES SUMMARY" : "GST SALES REPORT";
+            document.add(new Paragraph(title + " (" + start + " to " + end + ")", pdfRenderer.headerFont()));
+
+            // 2. Table with the precompiled header row, repeated on every page
+            PdfPTable table = (salesSummary ? salesLayout : gstLayout).newTable();
+            table.setComplete(false);
 
-        // Add Data Rows (Fetch from DB based on start/end dates)
-        // table.addCell("29ARLPK..."); 
+            // 3. Data rows, flushed to the document page by page
+            if (salesSummary) {
+                int rows = 0;
+                for (DailySalesRollup r : salesRollupService.findRange(LocalDate.parse(start), LocalDate.parse(end))) {
+                    addCells(table,
+                        r.getSaleDate().toString(), r.getHsnCode(), r.getCategory(), money(r.getTaxRate()),
+                        String.valueOf(r.getOrderCount()), String.valueOf(r.getQuantity()),
+                        money(r.getTaxableValue()), money(r.getCgst()), money(r.getSgst()), money(r.getRevenue()));
+                    if (++rows % PDF_ROWS_PER_FLUSH == 0) {
+                        document.add(table);
+                    }
+                }
+            } else {
+                try (Stream<GstReportProjection> rows = orderRepository.streamGstReportData(startOf(start), endOf(end))) {
+                    Iterator<GstReportProjection> it = rows.iterator();
+                    int count = 0;
+                    while (it.hasNext()) {
+                        GstReportProjection r = it.next();
+                        addCells(table,
+                            String.valueOf(r.getOrderId()),
+                            r.getOrderDate() != null ? DateTimeFormatter.ISO_LOCAL_DATE.format(r.getOrderDate()) : "",
+                            r.getCustomerName(), r.getProductName(), r.getHsnCode(),
+                            r.getQuantity() != null ? r.getQuantity().toString() : "0",
+                            money(r.getUnitPrice()), money(r.getTaxableValue()),
+                            money(r.getCgst()), money(r.getSgst()), money(r.getTotalAmount()));
+                        if (++count % PDF_ROWS_PER_FLUSH == 0) {
+                            document.add(table);
+                        }
+                    }
+                }
+            }
 
-        document.add(table);
-        
-        // 5. Close the document to flush all data to the stream
-        document.close();
+            // 4. Last partial page
+            table.setComplete(true);
+            document.add(table);
         } catch (Exception e) {
-            e.printStackTrace();
+            throw new IllegalStateException("Could not render " + type + " PDF report", e);
+        } finally {
+            // Close the document to flush the remaining pages to the stream
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private void addCells(PdfPTable table, String... values) {
+        for (String value : values) {
+            table.addCell(new Phrase(value != null ? value : "", pdfRenderer.bodyFont()));
+        }
+    }
+
+    private static String money(Double value) {
+        return String.format("%.2f", valueOf(value));
+    }
+
+    private static String money(BigDecimal value) {
+        return value != null ? value.setScale(2, RoundingMode.HALF_UP).toPlainString() : "0.00";
+    }
+
+    // --- ⚪ CSV GENERATION ---
+    /**
+     * ✨ Streams GST rows from the DB cursor as CSV, one reusable buffer, no per-row Strings.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(String type, String start, String end, OutputStream out) throws IOException {
+        if (SALES_SUMMARY.equalsIgnoreCase(type)) {
+            writeSalesCsv(start, end, out);
+            return;
+        }
+        try (Stream<GstReportProjection> rows = orderRepository.streamGstReportData(startOf(start), endOf(end));
+             CsvStreamWriter csv = new CsvStreamWriter(out)) {
+            for (String column : GST_COLUMNS) {
+                csv.field(column);
+            }
+            csv.endRow();
+
+            Iterator<GstReportProjection> it = rows.iterator();
+            while (it.hasNext()) {
+                GstReportProjection r = it.next();
+                csv.field(r.getOrderId());
+                csv.field(r.getOrderDate() != null ? DateTimeFormatter.ISO_LOCAL_DATE.format(r.getOrderDate()) : null);
+                csv.field(r.getCustomerName());
+                csv.field(r.getProductName());
+                csv.field(r.getHsnCode());
+                csv.field(r.getQuantity() != null ? r.getQuantity().longValue() : 0L);
+                csv.money(r.getUnitPrice());
+                csv.money(r.getTaxableValue());
+                csv.money(r.getCgst());
+                csv.money(r.getSgst());
+                csv.money(r.getTotalAmount());
+                csv.endRow();
+            }
         }
-        return out.toByteArray();
     }
 
-    // --- ⚪ CSV GENERATION (Existing) ---
-    public String generateCsv(String type, String start, String end) {
-        return "Invoice,Date,Customer,Total\nINV-001,2026-01-09,Customer Name,1500.00";
+    private void writeSalesCsv(String start, String end, OutputStream out) throws IOException {
+        List<DailySalesRollup> rollup = salesRollupService.findRange(LocalDate.parse(start), LocalDate.parse(end));
+        try (CsvStreamWriter csv = new CsvStreamWriter(out)) {
+            for (String column : SALES_COLUMNS) {
+                csv.field(column);
+            }
+            csv.endRow();
+
+            for (DailySalesRollup r : rollup) {
+                csv.field(DateTimeFormatter.ISO_LOCAL_DATE.format(r.getSaleDate()));
+                csv.field(r.getHsnCode());
+                csv.field(r.getCategory());
+                csv.money(valueOf(r.getTaxRate()));
+                csv.field(r.getOrderCount());
+                csv.field(r.getQuantity());
+                csv.money(valueOf(r.getTaxableValue()));
+                csv.money(valueOf(r.getCgst()));
+                csv.money(valueOf(r.getSgst()));
+                csv.money(valueOf(r.getRevenue()));
+                csv.endRow();
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+package com.yasboss.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.event.SalesRollupChangedEvent;
+import com.yasboss.exception.InvalidRequestException;
+import com.yasboss.model.DailySalesRollup;
+import com.yasboss.model.OrderStatus;
+import com.yasboss.repository.DailySalesRollupRepository;
+import com.yasboss.repository.OutboxEventRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * ✨ Daily Sales Rollup Maintenance
+ * An order enters the rollup when it becomes a sale (see OrderStatus#isSale) and
+ * leaves it when cancelled or returned. The delta is queued through the outbox in
+ * the same transaction as the status change and applied as one upsert, so it is
+ * counted exactly once. A nightly rebuild recomputes recent days from the orders.
+ * <p>
+ * Revenue here (and the dashboard's totalRevenue) is line value plus GST for orders
+ * in a sale status, before coupon discounts and without shipping. GST uses the
+ * rates PricingEngine charges: the GST_RATE_<hsn> override for the line's HSN code,
+ * else TAX_PERCENTAGE. A rate change applies to sales counted after it and to days
+ * rebuilt after it. It is not the
+ * old SUM(orders.total_amount), which counted every order in any status.
+ * Rows stay after their orders are archived; if the table is empty at startup it is
+ * backfilled once from every sale still in the live order tables.
+ */
+@Service
+@Slf4j
+public class SalesRollupService {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder().build();
+
+    private final DailySalesRollupRepository rollupRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SettingsService settingsService;
+    private final TransactionTemplate rebuildTransaction;
+
+    @Value("${reports.rollup.rebuild-days:7}")
+    private int rebuildDays;
+
+    @Value("${orders.archive.after-months:18}")
+    private int archiveAfterMonths;
+
+    public SalesRollupService(DailySalesRollupRepository rollupRepository,
+                              OutboxEventRepository outboxEventRepository,
+                              OutboxService outboxService,
+                              ApplicationEventPublisher eventPublisher,
+                              SettingsService settingsService,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.settingsService = settingsService;
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasSale = event.previousStatus() != null && event.previousStatus().isSale();
+        boolean isSale = event.newStatus().isSale();
+        if (wasSale == isSale) {
+            return;
+        }
+        // An order becomes a sale once and leaves at most once (CANCELLED/RETURNED are final)
+        outboxService.enqueue(OutboxService.SALES_ROLLUP, event.orderDbId(),
+            "rollup:" + event.orderDbId() + (isSale ? ":add" : ":reverse"),
+            Map.of("sign", isSale ? "1" : "-1"));
+    }
+
+    /**
+     * Called by OutboxDispatcher inside the transaction that acknowledges the event.
+     */
+    @Transactional
+    public void apply(Long orderDbId, int sign) {
+        Rates rates = currentRates();
+        int rows = rollupRepository.applyOrder(orderDbId, sign, rates.hsnRates(), rates.defaultRate());
+        log.debug("Sales rollup {} order {} ({} rows)", sign > 0 ? "added" : "reversed", orderDbId, rows);
+        if (rows > 0) {
+            double revenue = rollupRepository.orderRevenue(orderDbId, rates.hsnRates(), rates.defaultRate()).doubleValue();
+            eventPublisher.publishEvent(new SalesRollupChangedEvent(orderDbId, sign * revenue));
+        }
+    }
+
+    /**
+     * Recomputes the rollup for sale days {@code from}..{@code to} (inclusive).
+     * Runs on one REPEATABLE READ snapshot taken after the table lock: pending rollup
+     * events for orders in range are already reflected in that snapshot, so they are
+     * closed here instead of being applied a second time.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidRequestException("Rebuild range ends before it starts");
+        }
+        LocalDate archiveCutoff = YearMonth.now().minusMonths(archiveAfterMonths).atDay(1);
+        if (from.isBefore(archiveCutoff)) {
+            // Archived orders are no longer in the order tables; rebuilding would drop their sales
+            throw new InvalidRequestException("Cannot rebuild sales before " + archiveCutoff + " (orders archived)");
+        }
+        return rebuildRange(from, to);
+    }
+
+    /**
+     * A worker applying a delta holds its event row (OutboxService#completeIfProcessing)
+     * and then waits on the table lock; the supersede below waits on that row. Postgres
+     * breaks the deadlock by aborting one side: either the worker retries and finds its
+     * event closed, or the rebuild fails and the worker's delta stands.
+     */
+    private int rebuildRange(LocalDate from, LocalDate to) {
+        LocalDate end = to.plusDays(1);
+        Rates rates = currentRates();
+        return rebuildTransaction.execute(status -> {
+            rollupRepository.lockForRebuild(); // Before any query, so the snapshot starts after it
+            double before = rollupRepository.sumRevenueBetween(from, end).doubleValue();
+            int superseded = outboxEventRepository.supersedeOrderEvents(OutboxService.SALES_ROLLUP,
+                from.atStartOfDay(), end.atStartOfDay());
+            rollupRepository.deleteRange(from, end);
+            int rows = rollupRepository.rebuildRange(from.atStartOfDay(), end.atStartOfDay(),
+                OrderStatus.saleStatusNames(), rates.hsnRates(), rates.defaultRate());
+            double after = rollupRepository.sumRevenueBetween(from, end).doubleValue();
+            if (after != before) {
+                eventPublisher.publishEvent(new SalesRollupChangedEvent(null, after - before)); // Delivered after commit
+            }
+
+            log.info("Rebuilt sales rollup {}..{}: {} rows, {} pending deltas superseded", from, to, rows, superseded);
+            return rows;
+        });
+    }
+
+    /**
+     * ✨ One-time backfill: the rollup starts empty on the first deploy, which would
+     * leave reports and totalRevenue at 0. Covers every sale still in the order
+     * tables, including ones older than the archive window (nothing to overwrite yet).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (rollupRepository.count() > 0) {
+                return;
+            }
+            LocalDate first = rollupRepository.findFirstSaleDate(OrderStatus.saleStatusNames());
+            if (first == null) {
+                return;
+            }
+            int rows = rebuildRange(first, LocalDate.now());
+            log.info("Sales rollup backfilled from {}: {} rows", first, rows);
+        } catch (Exception e) {
+            log.warn("Sales rollup backfill failed, it runs again on the next startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${reports.rollup.rebuild-cron:0 15 3 * * *}")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now();
+        try {
+            rebuild(today.minusDays(rebuildDays), today);
+        } catch (Exception e) {
+            // A concurrent outbox claim can abort the snapshot; tomorrow's run covers the same days
+            log.warn("Nightly sales rollup rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    // GST rates the way PricingEngine applies them: per-HSN overrides, then the default
+    private record Rates(String hsnRates, double defaultRate) {}
+
+    private Rates currentRates() {
+        SettingsService.Snapshot settings = settingsService.current();
+        return new Rates(MAPPER.writeValueAsString(settings.hsnTaxRates()), settings.taxPercentage());
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesRollup> findRange(LocalDate start, LocalDate end) {
+        return rollupRepository.findBySaleDateBetweenOrderBySaleDateAscHsnCodeAscCategoryAsc(start, end);
+    }
+}
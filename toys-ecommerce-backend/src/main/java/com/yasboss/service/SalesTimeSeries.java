@@ -0,0 +1,165 @@
+package com.yasboss.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.yasboss.dto.SalesSeries;
+import com.yasboss.event.OrderStatusChangedEvent;
+import com.yasboss.model.OrderStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ✨ Live Sales Time Series
+ * Per-minute buckets for the last 48 hours in a fixed ring of {@link #SLOTS} slots,
+ * so charts never run date_trunc over the orders table. Slot i holds minute m when
+ * m % SLOTS == i; its stamp records which minute it currently holds, and a slot is
+ * zeroed the first time a newer minute lands on it. Revenue is kept in paise so
+ * every counter is a plain atomic long.
+ * Orders, items and revenue are counted when an order is placed; cancellations when
+ * an order moves to CANCELLED.
+ */
+@Service
+@Slf4j
+public class SalesTimeSeries {
+
+    public static final int SLOTS = 48 * 60;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(SLOTS); // Epoch minute held by each slot
+    private final AtomicLongArray orders = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray items = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray revenuePaise = new AtomicLongArray(SLOTS);
+    private final AtomicLongArray cancellations = new AtomicLongArray(SLOTS);
+
+    public SalesTimeSeries(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (int i = 0; i < SLOTS; i++) {
+            stamps.set(i, -1); // No minute yet
+        }
+    }
+
+    // --- 📥 Event Feed ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        long minute = currentMinute();
+        if (event.isNewOrder()) {
+            int slot = claim(minute);
+            orders.incrementAndGet(slot);
+            items.addAndGet(slot, event.itemCount());
+            revenuePaise.addAndGet(slot, toPaise(event.totalAmount()));
+        } else if (event.newStatus() == OrderStatus.CANCELLED) {
+            cancellations.incrementAndGet(claim(minute));
+        }
+    }
+
+    /**
+     * Returns the slot for {@code minute}, zeroing it first if it still holds an older minute.
+     * Resets are rare (once per slot per 48h), so a lock there keeps the hot path lock-free.
+     */
+    private int claim(long minute) {
+        int slot = (int) (minute % SLOTS);
+        if (stamps.get(slot) != minute) {
+            synchronized (this) {
+                if (stamps.get(slot) < minute) {
+                    orders.set(slot, 0);
+                    items.set(slot, 0);
+                    revenuePaise.set(slot, 0);
+                    cancellations.set(slot, 0);
+                    stamps.set(slot, minute);
+                }
+            }
+        }
+        return slot;
+    }
+
+    // --- 🔄 Startup Backfill ---
+
+    /**
+     * Fills every minute of the window before startup from the orders table (one
+     * grouped query). The current minute is left to live events so nothing is counted twice.
+     * Cancellations have no timestamp on the order, so their history starts at boot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        long now = currentMinute();
+        LocalDateTime since = toLocalDateTime(now - SLOTS + 1);
+        LocalDateTime until = toLocalDateTime(now);
+
+        int[] minutes = {0};
+        jdbcTemplate.query(
+            "SELECT date_trunc('minute', x.order_date) AS minute, COUNT(*) AS orders, " +
+            "COALESCE(SUM(x.total_amount), 0) AS revenue, COALESCE(SUM(x.units), 0) AS items " +
+            "FROM (SELECT o.order_date, o.total_amount, " +
+            "(SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_db_id = o.id) AS units " +
+            "FROM orders o WHERE o.order_date >= ? AND o.order_date < ?) x GROUP BY 1",
+            rs -> {
+                long minute = toMinute(rs.getTimestamp("minute").toLocalDateTime());
+                int slot = claim(minute);
+                orders.addAndGet(slot, rs.getLong("orders"));
+                items.addAndGet(slot, rs.getLong("items"));
+                revenuePaise.addAndGet(slot, toPaise(rs.getDouble("revenue")));
+                minutes[0]++;
+            },
+            Timestamp.valueOf(since), Timestamp.valueOf(until));
+
+        log.info("Sales time series backfilled: {} active minutes since {}", minutes[0], since);
+    }
+
+    // --- 📤 Reads ---
+
+    /**
+     * The last {@code minutes} buckets, oldest first, ending with the current minute.
+     * Slots not written since they last wrapped read as zero.
+     */
+    public SalesSeries snapshot(int minutes) {
+        int count = Math.max(1, Math.min(minutes, SLOTS));
+        long last = currentMinute();
+        long first = last - count + 1;
+
+        long[] orderCounts = new long[count];
+        long[] itemCounts = new long[count];
+        double[] revenue = new double[count];
+        long[] cancelled = new long[count];
+        for (int i = 0; i < count; i++) {
+            long minute = first + i;
+            int slot = (int) (minute % SLOTS);
+            if (stamps.get(slot) == minute) {
+                orderCounts[i] = orders.get(slot);
+                itemCounts[i] = items.get(slot);
+                revenue[i] = revenuePaise.get(slot) / 100.0;
+                cancelled[i] = cancellations.get(slot);
+            }
+        }
+        return new SalesSeries(first * 60_000, 60, orderCounts, itemCounts, revenue, cancelled);
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+
+    // Order timestamps are stored as local wall-clock time
+    private static long toMinute(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond() / 60;
+    }
+
+    private static LocalDateTime toLocalDateTime(long minute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(minute * 60), ZoneId.systemDefault());
+    }
+
+    private static long toPaise(Double amount) {
+        return amount != null ? Math.round(amount * 100) : 0;
+    }
+}
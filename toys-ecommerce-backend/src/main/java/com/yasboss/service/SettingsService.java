@@ -1,27 +1,136 @@
 package com.yasboss.service;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.yasboss.model.GlobalSettings;
 import com.yasboss.repository.SettingsRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+/**
+ * ✨ Global Settings Snapshot
+ * global_settings is read once into an immutable, already-parsed {@link Snapshot}
+ * and swapped atomically when a value changes, so pricing and return checks read
+ * a field instead of querying and parsing on every call. Updates made through this
+ * service apply on this node immediately; other nodes pick them up on the next
+ * {@code settings.reload-interval-ms} reload.
+ */
 @Service
+@Slf4j
 public class SettingsService {
 
+    /** Per-HSN GST overrides, e.g. GST_RATE_9503=12 */
+    public static final String HSN_RATE_PREFIX = "GST_RATE_";
+
+    /**
+     * Typed view of global_settings. {@code replacementWindowDays} reads RETURN_WINDOW
+     * (used by replacement requests), {@code returnWindowDays} reads RETURN_WINDOW_DAYS.
+     * {@code hsnTaxRates} maps an HSN code to its rate; other lines use {@code taxPercentage}.
+     */
+    public record Snapshot(
+            double taxPercentage,
+            double freeDeliveryThreshold,
+            double shippingFee,
+            int returnWindowDays,
+            int replacementWindowDays,
+            Map<String, Double> hsnTaxRates,
+            Map<String, String> values) {}
+
     @Autowired
     private SettingsRepository settingsRepository;
 
+    private volatile Snapshot current;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    public Snapshot current() {
+        return current;
+    }
+
     public int getReturnWindow() {
-        return Integer.parseInt(
-            settingsRepository.findById("RETURN_WINDOW_DAYS")
-                .map(s -> s.getSettingValue())
-                .orElse("7") // Default fallback
-        );
+        return current.returnWindowDays();
     }
 
-    public void updateSetting(String key, String value) {
-        settingsRepository.findById(key).ifPresent(setting -> {
+    public Optional<GlobalSettings> updateSetting(String key, String value) {
+        Optional<GlobalSettings> updated = settingsRepository.findById(key).map(setting -> {
             setting.setSettingValue(value);
-            settingsRepository.save(setting);
+            return settingsRepository.save(setting);
         });
+        updated.ifPresent(setting -> reload());
+        return updated;
+    }
+
+    /**
+     * Re-reads the (small) table and swaps the snapshot if anything changed.
+     * Also how values changed on another node reach this one.
+     */
+    @Scheduled(fixedDelayString = "${settings.reload-interval-ms:30000}", initialDelayString = "${settings.reload-interval-ms:30000}")
+    public synchronized void reload() {
+        Map<String, String> values = new HashMap<>();
+        for (GlobalSettings setting : settingsRepository.findAll()) {
+            if (setting.getSettingValue() != null) {
+                values.put(setting.getSettingKey(), setting.getSettingValue().trim());
+            }
+        }
+
+        Map<String, Double> hsnTaxRates = new HashMap<>();
+        for (String key : values.keySet()) {
+            if (key.startsWith(HSN_RATE_PREFIX)) {
+                hsnTaxRates.put(key.substring(HSN_RATE_PREFIX.length()), parseDouble(values, key, 18.0));
+            }
+        }
+
+        Snapshot next = new Snapshot(
+            parseDouble(values, "TAX_PERCENTAGE", 18.0),
+            parseDouble(values, "FREE_DELIVERY_THRESHOLD", 500.0),
+            parseDouble(values, "SHIPPING_FEE", 49.0),
+            parseInt(values, "RETURN_WINDOW_DAYS", 7),
+            parseInt(values, "RETURN_WINDOW", 7),
+            Map.copyOf(hsnTaxRates),
+            Map.copyOf(values));
+
+        if (!next.equals(current)) {
+            if (current != null) {
+                log.info("Global settings reloaded: {}", next.values());
+            }
+            current = next;
+        }
+    }
+
+    // A malformed value keeps the default instead of failing every checkout
+    private static double parseDouble(Map<String, String> values, String key, double fallback) {
+        String value = values.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Setting {}='{}' is not a number, using {}", key, value, fallback);
+            return fallback;
+        }
+    }
+
+    private static int parseInt(Map<String, String> values, String key, int fallback) {
+        String value = values.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            log.warn("Setting {}='{}' is not a whole number, using {}", key, value, fallback);
+            return fallback;
+        }
     }
-}
\ No newline at end of file
+}
@@ -5,9 +5,11 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.yasboss.dto.TrackingResponseDTO;
+import com.yasboss.event.ShipmentStatusChangedEvent;
 import com.yasboss.model.ShipmentTracking;
 import com.yasboss.repository.ShipmentLogRepository;
 import com.yasboss.repository.ShipmentTrackingRepository;
@@ -22,6 +24,9 @@ public class ShipmentService {
     @Autowired
     private ShipmentLogRepository logRepo;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public TrackingResponseDTO getTrackingDetails(String waybill) {
         ShipmentTracking shipment = shipmentRepository.findByWaybillNumber(waybill)
             .orElseThrow(() -> new RuntimeException("Waybill not found"));
@@ -48,7 +53,6 @@ public class ShipmentService {
      * Returns a map of status names and their current counts.
      */
     public Map<String, Long> getStatusCounts() {
-        List<ShipmentTracking> allShipments = shipmentRepository.findAll();
         Map<String, Long> counts = new HashMap<>();
         
         // Initialize all keys to zero as per UI requirements
@@ -59,13 +63,16 @@ public class ShipmentService {
         counts.put("IN_TRANSIT", 0L);
         counts.put("RTO", 0L);
         counts.put("DELIVERED", 0L);
-        counts.put("ALL", (long) allShipments.size());
 
         // Aggregate counts based on DB status
-        allShipments.forEach(s -> {
-            String status = s.getStatus().toString();
-            counts.put(status, counts.getOrDefault(status, 0L) + 1);
-        });
+        long all = 0;
+        for (ShipmentTrackingRepository.StatusCount row : shipmentRepository.countGroupedByStatus()) {
+            all += row.getCount();
+            if (row.getStatus() != null) {
+                counts.merge(row.getStatus(), row.getCount(), Long::sum);
+            }
+        }
+        counts.put("ALL", all);
 
         return counts;
     }
@@ -87,10 +94,12 @@ public class ShipmentService {
      */
     public void syncWithVendor(String waybill, String newStatus, String location) {
         shipmentRepository.findByWaybillNumber(waybill).ifPresent(shipment -> {
+            String previousStatus = shipment.getStatus();
             shipment.setStatus(newStatus);
             shipment.setCurrentLocation(location);
             shipment.setLastUpdated(java.time.LocalDateTime.now());
             shipmentRepository.save(shipment);
+            eventPublisher.publishEvent(new ShipmentStatusChangedEvent(waybill, previousStatus, newStatus));
         });
     }
 
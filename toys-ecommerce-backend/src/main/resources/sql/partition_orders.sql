@@ -0,0 +1,81 @@
+-- ✨ One-off conversion of orders into monthly range partitions on order_date.
+-- Run in a maintenance window with the application stopped. After this,
+-- OrderPartitionService creates the upcoming months automatically.
+--
+-- Notes:
+--  * A partitioned table's primary key must contain the partition key, so the
+--    key becomes (id, order_date) and order_id is indexed but no longer UNIQUE
+--    at the database level (it is generated uniquely by the application).
+--  * Foreign keys pointing at orders(id) cannot be kept; order_items keeps its
+--    index on order_db_id and the application deletes items with their order.
+--  * Date-bounded queries (GST report, archiver) prune to the matching months.
+--  * From now on start the application with the "partitioned" profile
+--    (application-partitioned.properties), which sets ddl-auto=validate.
+--    With the default ddl-auto=update, Hibernate would try to recreate the
+--    order_id UNIQUE constraint (Order.orderId) and the order_items foreign key
+--    (OrderItem.order) on every start, and both fail on the partitioned table.
+--    Later entity changes then need their DDL applied by hand.
+
+BEGIN;
+
+-- 1. Every row needs a partition key
+UPDATE orders SET order_date = created_at WHERE order_date IS NULL;
+UPDATE orders SET order_date = now() WHERE order_date IS NULL;
+
+-- 2. Drop foreign keys that reference orders (Hibernate generates random names)
+DO $$
+DECLARE r record;
+BEGIN
+    FOR r IN SELECT conname, conrelid::regclass AS tbl
+             FROM pg_constraint
+             WHERE contype = 'f' AND confrelid = 'orders'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', r.tbl, r.conname);
+    END LOOP;
+END $$;
+
+-- 3. Swap in a partitioned parent with the same columns and defaults
+ALTER TABLE orders RENAME TO orders_legacy;
+
+CREATE TABLE orders (LIKE orders_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (order_date);
+ALTER TABLE orders ALTER COLUMN order_date SET NOT NULL;
+ALTER TABLE orders ADD PRIMARY KEY (id, order_date);
+
+-- 4. One partition per month of existing data, plus next month and a default catch-all
+DO $$
+DECLARE
+    m date;
+    last_month date;
+BEGIN
+    SELECT date_trunc('month', min(order_date))::date INTO m FROM orders_legacy;
+    last_month := (date_trunc('month', now()) + interval '1 month')::date;
+    IF m IS NULL THEN
+        m := date_trunc('month', now())::date;
+    END IF;
+    WHILE m <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       'orders_y' || to_char(m, 'YYYY') || 'm' || to_char(m, 'MM'),
+                       m, (m + interval '1 month')::date);
+        m := (m + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE TABLE IF NOT EXISTS orders_default PARTITION OF orders DEFAULT;
+
+-- 5. Indexes on the parent cascade to every partition
+CREATE INDEX IF NOT EXISTS idx_orders_order_id ON orders (order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
+CREATE INDEX IF NOT EXISTS idx_orders_user_email ON orders (user_email);
+CREATE INDEX IF NOT EXISTS idx_orders_tracking_id ON orders (tracking_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_order_db_id ON order_items (order_db_id);
+
+-- 6. Copy the data
+INSERT INTO orders SELECT * FROM orders_legacy;
+
+COMMIT;
+
+ANALYZE orders;
+
+-- Keep orders_legacy until the row counts are verified, then:
+-- DROP TABLE orders_legacy;
@@ -0,0 +1,18 @@
+-- Pooled sequences for batch-inserted tables.
+-- Hibernate's pooled optimizer reserves 50 ids per nextval, so INCREMENT BY must match allocationSize.
+-- Run once before deploying; each sequence starts above the current max id so existing rows are untouched.
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS cart_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS audit_logs_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS shipment_logs_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS point_history_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq INCREMENT BY 50;
+
+SELECT setval('orders_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 50);
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 50);
+SELECT setval('cart_items_seq', COALESCE((SELECT MAX(id) FROM cart_items), 0) + 50);
+SELECT setval('audit_logs_seq', COALESCE((SELECT MAX(id) FROM audit_logs), 0) + 50);
+SELECT setval('shipment_logs_seq', COALESCE((SELECT MAX(id) FROM shipment_logs), 0) + 50);
+SELECT setval('point_history_seq', COALESCE((SELECT MAX(id) FROM point_history), 0) + 50);
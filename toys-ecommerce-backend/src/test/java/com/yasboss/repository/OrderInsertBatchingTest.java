@@ -0,0 +1,111 @@
+package com.yasboss.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
+import com.yasboss.support.PostgresTestSupport;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Before/after harness for writing a 30-item order.
+ * <p>
+ * Before: orders and order_items used IDENTITY keys, which makes Hibernate insert
+ * row by row to read each generated id back. That is reproduced here with a JDBC
+ * batch size of 1 on the session. After: pooled sequences plus
+ * {@code hibernate.jdbc.batch_size} send each table as one batch.
+ * Statement counts come from Hibernate statistics and are asserted; the timings
+ * are printed for comparison only.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderInsertBatchingTest extends PostgresTestSupport {
+
+	private static final int ITEMS = 30;
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int ROUNDS = 20;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void thirtyItemOrderIsWrittenInBatches() {
+		Session session = entityManager.unwrap(Session.class);
+		Statistics statistics = entityManager.getEntityManagerFactory()
+			.unwrap(SessionFactory.class).getStatistics();
+
+		Run rowByRow = measure("row-by-row", session, statistics, 1);
+		Run batched = measure("batched", session, statistics, null); // null = configured batch_size
+
+		System.out.printf("%d-item order, %d rounds%n", ITEMS, ROUNDS);
+		System.out.println(rowByRow);
+		System.out.println(batched);
+
+		// 1 order + 30 items, each its own statement, plus sequence fetches
+		assertThat(rowByRow.statementsPerOrder()).isGreaterThanOrEqualTo(ITEMS + 1);
+		// One batch per table; sequence fetches are shared across 50 ids
+		assertThat(batched.statementsPerOrder()).isLessThanOrEqualTo(4);
+	}
+
+	private Run measure(String label, Session session, Statistics statistics, Integer batchSize) {
+		session.setJdbcBatchSize(batchSize);
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			saveOrder(label + "-warmup-" + i);
+		}
+
+		statistics.clear();
+		long started = System.nanoTime();
+		for (int i = 0; i < ROUNDS; i++) {
+			saveOrder(label + "-" + i);
+		}
+		long elapsedNanos = System.nanoTime() - started;
+		return new Run(label, statistics.getPrepareStatementCount() / (double) ROUNDS,
+			elapsedNanos / 1_000_000.0 / ROUNDS);
+	}
+
+	private void saveOrder(String reference) {
+		Order order = new Order();
+		order.setOrderId("YB-TEST-" + reference);
+		order.setUserEmail("batching@test.local");
+		order.setTotalAmount(ITEMS * 499.0);
+
+		List<OrderItem> items = new ArrayList<>();
+		for (int i = 0; i < ITEMS; i++) {
+			OrderItem item = new OrderItem();
+			item.setProductId((long) i + 1);
+			item.setProductName("Toy " + (i + 1));
+			item.setPrice(499.0);
+			item.setQuantity(1);
+			item.setOrder(order);
+			items.add(item);
+		}
+		order.setItems(items);
+
+		orderRepository.save(order);
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private record Run(String label, double statementsPerOrder, double millisPerOrder) {
+		@Override
+		public String toString() {
+			return String.format("%-11s %6.1f statements/order %8.2f ms/order", label, statementsPerOrder, millisPerOrder);
+		}
+	}
+
+}
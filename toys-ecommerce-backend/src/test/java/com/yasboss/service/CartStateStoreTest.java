@@ -0,0 +1,190 @@
+package com.yasboss.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.yasboss.dto.CartLineView;
+import com.yasboss.dto.CartView;
+import com.yasboss.model.Cart;
+import com.yasboss.model.CartItem;
+import com.yasboss.model.Product;
+import com.yasboss.model.User;
+import com.yasboss.repository.CartItemRepository;
+import com.yasboss.repository.CartRepository;
+import com.yasboss.repository.ProductRepository;
+import com.yasboss.repository.UserRepository;
+import com.yasboss.support.PostgresTestSupport;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Write-behind cart state against the database. Each CartStateStore stands for
+ * one node; a node that "crashes" is simply dropped without flushing.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CartStateStoreTest extends PostgresTestSupport {
+
+	private static final String EMAIL = "cart-state@test.local";
+
+	@Autowired
+	private CartRepository cartRepository;
+
+	@Autowired
+	private CartItemRepository cartItemRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+	private Product puzzle;
+	private Product robot;
+	private Long puzzleLineId;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+
+		User user = new User();
+		user.setEmail(EMAIL);
+		user.setName("Cart State");
+		entityManager.persist(user);
+
+		puzzle = product("Wooden Puzzle");
+		robot = product("Walking Robot");
+
+		Cart cart = new Cart();
+		cart.setUser(user);
+		cart.setUserEmail(EMAIL);
+		entityManager.persist(cart);
+
+		CartItem line = new CartItem();
+		line.setCart(cart);
+		line.setProduct(puzzle);
+		line.setQuantity(1);
+		entityManager.persist(line);
+		entityManager.flush();
+		puzzleLineId = line.getId();
+	}
+
+	@Test
+	void clicksNotYetFlushedAreLostOnCrash() {
+		CartStateStore store = newStore();
+		CartService node = node(store);
+
+		for (int quantity = 2; quantity <= 6; quantity++) {
+			node.updateQuantity(EMAIL, puzzle.getId(), quantity);
+		}
+		assertThat(quantityOf(node.getCart(EMAIL), puzzle)).isEqualTo(6);
+
+		// Crash: the store is dropped before flushDirty ran
+		int reloaded = quantityOf(node(newStore()).getCart(EMAIL), puzzle);
+		assertThat(persistedQuantity(puzzleLineId)).isEqualTo(1);
+		assertThat(reloaded).isEqualTo(1);
+	}
+
+	@Test
+	void flushWritesOnlyTheLatestQuantity() {
+		CartStateStore store = newStore();
+		CartService node = node(store);
+
+		for (int quantity = 2; quantity <= 6; quantity++) {
+			node.updateQuantity(EMAIL, puzzle.getId(), quantity);
+		}
+		store.flushDirty();
+
+		assertThat(persistedQuantity(puzzleLineId)).isEqualTo(6);
+		assertThat(quantityOf(node(newStore()).getCart(EMAIL), puzzle)).isEqualTo(6);
+	}
+
+	@Test
+	void lineAddedThroughAnotherNodeIsReadFromTheDatabase() {
+		CartStateStore storeA = newStore();
+		CartService nodeA = node(storeA);
+		CartService nodeB = node(newStore());
+
+		nodeA.getCart(EMAIL); // Cached on A with the puzzle only
+		nodeB.addToCart(EMAIL, robot.getId(), 1);
+		entityManager.flush();
+
+		// Used to throw "Item not found in cart" on A
+		nodeA.updateQuantity(EMAIL, robot.getId(), 3);
+		// Must add to B's line, not insert a second one
+		CartView cart = nodeA.addToCart(EMAIL, robot.getId(), 2);
+		storeA.flushDirty();
+
+		assertThat(cart.getItems()).hasSize(2);
+		assertThat(quantityOf(cart, robot)).isEqualTo(5);
+		assertThat(persistedQuantity(lineOf(cart, robot).getId())).isEqualTo(5);
+		assertThat(jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM cart_items WHERE product_id = ?", Integer.class, robot.getId())).isEqualTo(1);
+	}
+
+	@Test
+	void lineRemovedThroughAnotherNodeIsDroppedOnFlush() {
+		CartStateStore storeA = newStore();
+		CartService nodeA = node(storeA);
+		CartService nodeB = node(newStore());
+
+		nodeA.getCart(EMAIL);
+		nodeB.removeItem(puzzleLineId, EMAIL);
+		entityManager.flush();
+
+		nodeA.updateQuantity(EMAIL, puzzle.getId(), 4); // Still cached on A
+		storeA.flushDirty();
+
+		assertThat(nodeA.getCart(EMAIL).getItems()).isEmpty();
+	}
+
+	private CartStateStore newStore() {
+		return new CartStateStore(jdbcTemplate, 100, 10);
+	}
+
+	// Pricing is not used by the cart state paths
+	private CartService node(CartStateStore store) {
+		return new CartService(cartRepository, cartItemRepository, productRepository, userRepository, null, store);
+	}
+
+	private Product product(String name) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(499.0);
+		product.setSellingPrice(449.0);
+		product.setStockQuantity(100);
+		entityManager.persist(product);
+		return product;
+	}
+
+	private int persistedQuantity(Long itemId) {
+		return jdbcTemplate.queryForObject("SELECT quantity FROM cart_items WHERE id = ?", Integer.class, itemId);
+	}
+
+	private static CartLineView lineOf(CartView cart, Product product) {
+		return cart.getItems().stream()
+			.filter(line -> line.getProduct().getId().equals(product.getId()))
+			.findFirst()
+			.orElseThrow();
+	}
+
+	private static int quantityOf(CartView cart, Product product) {
+		return lineOf(cart, product).getQuantity();
+	}
+
+}
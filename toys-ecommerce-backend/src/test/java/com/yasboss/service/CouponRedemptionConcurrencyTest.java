@@ -0,0 +1,118 @@
+package com.yasboss.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.yasboss.model.Coupon;
+import com.yasboss.repository.CouponRepository;
+import com.yasboss.support.PostgresTestSupport;
+
+/**
+ * More concurrent checkouts than a limited coupon has uses. Each redeem() commits
+ * in its own transaction, as in production, so the conditional UPDATE is what
+ * keeps used_count from passing usage_limit.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ CouponService.class, CouponIndex.class, CouponRedemptionConcurrencyTest.Config.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponRedemptionConcurrencyTest extends PostgresTestSupport {
+
+	private static final int USAGE_LIMIT = 5;
+	private static final int CHECKOUTS = 40;
+
+	@TestConfiguration
+	static class Config {
+		@Bean
+		JdbcTemplate jdbcTemplate(DataSource dataSource) {
+			return new JdbcTemplate(dataSource);
+		}
+	}
+
+	@Autowired
+	private CouponService couponService;
+
+	@Autowired
+	private CouponRepository couponRepository;
+
+	private Coupon coupon;
+
+	@BeforeEach
+	void setUp() {
+		Coupon limited = new Coupon();
+		limited.setCode("RACE5");
+		limited.setDiscountPercent(10);
+		limited.setUsageLimit(USAGE_LIMIT);
+		coupon = couponRepository.save(limited);
+	}
+
+	@AfterEach
+	void tearDown() {
+		couponRepository.deleteAll();
+	}
+
+	@Test
+	void exactlyUsageLimitConcurrentRedemptionsWin() throws Exception {
+		CouponIndex.ActiveCoupon active = CouponIndex.ActiveCoupon.of(coupon);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(CHECKOUTS);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>(CHECKOUTS);
+			for (int i = 0; i < CHECKOUTS; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					return couponService.redeem(active);
+				}));
+			}
+			start.countDown();
+
+			int wins = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get()) {
+					wins++;
+				}
+			}
+
+			assertThat(wins).isEqualTo(USAGE_LIMIT);
+			assertThat(couponRepository.findUsedCountById(coupon.getId())).contains(USAGE_LIMIT);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void releasedUseCanBeRedeemedAgain() {
+		CouponIndex.ActiveCoupon active = CouponIndex.ActiveCoupon.of(coupon);
+		for (int i = 0; i < USAGE_LIMIT; i++) {
+			assertThat(couponService.redeem(active)).isTrue();
+		}
+		assertThat(couponService.redeem(active)).isFalse();
+
+		couponService.release(coupon.getCode());
+
+		assertThat(couponService.redeem(active)).isTrue();
+		assertThat(couponRepository.findUsedCountById(coupon.getId())).contains(USAGE_LIMIT);
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.yasboss.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.yasboss.dto.OrderRequestDTO;
+import com.yasboss.model.FlashSaleFailure;
+import com.yasboss.model.Product;
+import com.yasboss.repository.FlashSaleFailureRepository;
+import com.yasboss.repository.OrderRepository;
+import com.yasboss.repository.ProductRepository;
+import com.yasboss.support.PostgresTestSupport;
+
+/**
+ * The flash sale writer against the database: a batch with one unwritable order
+ * is split and retried, so only that order ends up in flash_sale_failures.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlashSaleWriterTest extends PostgresTestSupport {
+
+	private static final int GOOD_ORDERS = 5;
+	private static final int STOCK = 100;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private FlashSaleFailureRepository failureRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private FlashSaleService flashSaleService;
+	private Product deal;
+	private Product regular;
+
+	@BeforeEach
+	void setUp() {
+		deal = productRepository.save(product("Flash Drone"));
+		regular = productRepository.save(product("Stacking Cups"));
+
+		SettingsService settings = new SettingsService() {
+			@Override
+			public Snapshot current() {
+				return new Snapshot(18.0, 999.0, 49.0, 7, 7, Map.of(), Map.of());
+			}
+		};
+		// No coupons are used, so CouponService needs no collaborators
+		PricingEngine pricingEngine = new PricingEngine(settings, null, productRepository);
+		flashSaleService = new FlashSaleService(productRepository, orderRepository, pricingEngine,
+			new CouponService(), failureRepository, new TransactionTemplate(transactionManager), eventPublisher,
+			new OrderReferences(), 100);
+		ReflectionTestUtils.setField(flashSaleService, "batchSize", 200);
+		ReflectionTestUtils.setField(flashSaleService, "maxBatchWaitMs", 50L);
+		flashSaleService.start(deal.getId());
+	}
+
+	@Test
+	void oneBadOrderDoesNotDropTheRestOfItsBatch() throws Exception {
+		List<String> good = new ArrayList<>();
+		for (int i = 0; i < GOOD_ORDERS / 2; i++) {
+			good.add(submit(line(deal, "Flash Drone")));
+		}
+		// Longer than order_items.product_name allows, so this order's INSERT fails
+		String bad = submit(line(deal, "Flash Drone"), line(regular, "x".repeat(300)));
+		while (good.size() < GOOD_ORDERS) {
+			good.add(submit(line(deal, "Flash Drone")));
+		}
+
+		// The writer starts after everything is queued, so all orders share one batch
+		flashSaleService.startWriter();
+		flashSaleService.shutdown();
+
+		for (String orderId : good) {
+			assertThat(orderRepository.findByOrderId(orderId)).as(orderId).isPresent();
+			assertThat(itemCount(orderId)).as(orderId).isEqualTo(1);
+		}
+		assertThat(orderRepository.findByOrderId(bad)).isEmpty();
+		assertThat(failureRepository.findByResolvedFalseOrderByCreatedAtDesc())
+			.extracting(FlashSaleFailure::getOrderId)
+			.containsExactly(bad);
+
+		// Only the written orders took stock; the failed order's unit is back on sale
+		assertThat(productRepository.findStockQuantityById(deal.getId())).contains(STOCK - GOOD_ORDERS);
+		assertThat(flashSaleService.getStatus())
+			.containsEntry("persisted", (long) GOOD_ORDERS)
+			.containsEntry("failed", 1L);
+	}
+
+	private String submit(OrderRequestDTO.OrderItemRequest... lines) {
+		OrderRequestDTO request = new OrderRequestDTO();
+		request.setEmail("flash@test.local");
+		request.setShippingAddress("12 Toy Street, Chennai 600001");
+		request.setItems(List.of(lines));
+		FlashSaleService.Submission submission = flashSaleService.submit(request);
+		assertThat(submission.outcome()).isEqualTo(FlashSaleService.Outcome.ACCEPTED);
+		return submission.orderId();
+	}
+
+	private static OrderRequestDTO.OrderItemRequest line(Product product, String name) {
+		OrderRequestDTO.OrderItemRequest line = new OrderRequestDTO.OrderItemRequest();
+		line.setProductId(product.getId());
+		line.setProductName(name);
+		line.setQuantity(1);
+		return line;
+	}
+
+	private static Product product(String name) {
+		Product product = new Product();
+		product.setName(name);
+		product.setPrice(999.0);
+		product.setSellingPrice(799.0);
+		product.setStockQuantity(STOCK);
+		return product;
+	}
+
+	private int itemCount(String orderId) {
+		return new JdbcTemplate(dataSource).queryForObject(
+			"SELECT COUNT(*) FROM order_items i JOIN orders o ON o.id = i.order_id WHERE o.order_id = ?",
+			Integer.class, orderId);
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.yasboss.service;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.yasboss.model.Order;
+
+/**
+ * Invoice render throughput with the shared PdfRenderer resources: one thread per
+ * core, written to a null stream so only rendering is measured.
+ * Run main() from the IDE, or:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.yasboss.service.InvoiceRenderingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class InvoiceRenderingBenchmark {
+
+	private InvoiceService invoiceService;
+	private Order order;
+
+	@Setup
+	public void setUp() {
+		invoiceService = new InvoiceService(new PdfRenderer());
+		order = InvoiceServiceTest.sampleOrder();
+	}
+
+	@Benchmark
+	public void render() {
+		invoiceService.render(order, OutputStream.nullOutputStream());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		int cores = Runtime.getRuntime().availableProcessors();
+		for (RunResult result : new Runner(new OptionsBuilder()
+				.include(InvoiceRenderingBenchmark.class.getSimpleName())
+				.build()).run()) {
+			double perSecond = result.getPrimaryResult().getScore();
+			System.out.printf("%.0f invoices/sec on %d cores, %.0f invoices/sec per core%n",
+				perSecond, cores, perSecond / cores);
+		}
+	}
+
+}
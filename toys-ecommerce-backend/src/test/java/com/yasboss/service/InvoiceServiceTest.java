@@ -0,0 +1,53 @@
+package com.yasboss.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.yasboss.model.Order;
+import com.yasboss.model.OrderItem;
+
+/**
+ * Invoice rendering with the shared PdfRenderer resources. Throughput is
+ * measured separately by {@link InvoiceRenderingBenchmark}.
+ */
+class InvoiceServiceTest {
+
+	private final InvoiceService invoiceService = new InvoiceService(new PdfRenderer());
+
+	@Test
+	void rendersValidPdf() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		invoiceService.render(sampleOrder(), out);
+
+		assertThat(new String(out.toByteArray(), 0, 5)).isEqualTo("%PDF-");
+	}
+
+	// Shared with InvoiceRenderingBenchmark
+	static Order sampleOrder() {
+		Order order = new Order();
+		order.setId(0L);
+		order.setOrderId("YB-BENCHMARK");
+		order.setInvoiceNumber("INV-BENCH-000000");
+		order.setInvoiceDate(LocalDateTime.now());
+		order.setUserEmail("benchmark@yasboss.com");
+		order.setShippingAddress("12 Toy Street, Chennai 600001");
+		List<OrderItem> items = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			OrderItem item = new OrderItem();
+			item.setProductName("Wooden Puzzle Set " + i);
+			item.setPrice(499.0);
+			item.setQuantity(i);
+			items.add(item);
+		}
+		order.setItems(items);
+		order.setTotalAmount(items.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum());
+		return order;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.yasboss.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * PricingEngine against the boxed-Double breakdown it replaced, for the same basket.
+ * Run main() from the IDE, or:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.yasboss.service.PricingEngineBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingEngineBenchmark {
+
+	private static final SettingsService.Snapshot SETTINGS = new SettingsService.Snapshot(
+		18.0, 999.0, 49.0, 7, 7, Map.of("9503", 12.0), Map.of());
+
+	@Param({ "5", "30" })
+	private int lines;
+
+	private PricingEngine engine;
+	private Double[] unitPrices;
+	private int[] quantities;
+	private String[] hsnCodes;
+
+	@Setup
+	public void setUp() {
+		// Coupons and HSN lookups are not exercised, so no repository is needed
+		SettingsService settings = new SettingsService() {
+			@Override
+			public Snapshot current() {
+				return SETTINGS;
+			}
+		};
+		engine = new PricingEngine(settings, null, null);
+
+		unitPrices = new Double[lines];
+		quantities = new int[lines];
+		hsnCodes = new String[lines];
+		for (int i = 0; i < lines; i++) {
+			unitPrices[i] = 199.0 + i * 37.5;
+			quantities[i] = 1 + i % 3;
+			hsnCodes[i] = i % 2 == 0 ? "9503" : null;
+		}
+	}
+
+	@Benchmark
+	public PricingEngine.Quote pricingEngine() {
+		PricingEngine.Calculation pricing = engine.start();
+		for (int i = 0; i < lines; i++) {
+			pricing.addLine(unitPrices[i], quantities[i], hsnCodes[i]);
+		}
+		return pricing.finish(null);
+	}
+
+	/**
+	 * The old CartService path: boxed Double arithmetic, per-line tax on doubles
+	 * and a Map result.
+	 */
+	@Benchmark
+	public Map<String, Double> boxedDoubles() {
+		Double subtotal = 0.0;
+		Double tax = 0.0;
+		for (int i = 0; i < lines; i++) {
+			Double line = unitPrices[i] * quantities[i];
+			Double rate = hsnCodes[i] != null ? SETTINGS.hsnTaxRates().get(hsnCodes[i]) : null;
+			subtotal += line;
+			tax += line * (rate != null ? rate : SETTINGS.taxPercentage()) / 100;
+		}
+		Double shipping = subtotal >= SETTINGS.freeDeliveryThreshold() ? 0.0 : SETTINGS.shippingFee();
+		Map<String, Double> breakdown = new HashMap<>();
+		breakdown.put("subtotal", subtotal);
+		breakdown.put("tax", tax);
+		breakdown.put("shipping", shipping);
+		breakdown.put("total", subtotal + tax + shipping);
+		return Map.copyOf(breakdown);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+			.include(PricingEngineBenchmark.class.getSimpleName())
+			.build()).run();
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.yasboss.support;
+
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Base class for tests that need the real database: native queries, sequences,
+ * conditional UPDATEs and row locks behave as they do in production. One
+ * PostgreSQL container per test class; the tests are skipped when Docker is not
+ * available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresTestSupport {
+
+	@Container
+	@ServiceConnection
+	protected static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+}
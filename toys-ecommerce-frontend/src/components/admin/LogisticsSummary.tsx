@@ -6,14 +6,28 @@ import {
     RefreshCcw, Loader2, ExternalLink, Zap, Navigation, Home
 } from 'lucide-react';
 import { useNavigate } from 'react-router-dom';
-import api from '../../services/api'; 
+import api, { adminEventService } from '../../services/api'; 
 import { toast } from 'react-toastify';
 
+// Statuses behind each tab, sent to the server as the list filter ('ALL' sends none)
+const tabStatuses: Record<string, string[]> = {
+    ORDERS: ['PAID'],
+    MANIFESTED: ['DISPATCHED'],
+    PICKUP: ['PENDING'],
+    IN_TRANSIT: ['SHIPPED'],
+    OUT_FOR_DELIVERY: ['OUT_FOR_DELIVERY'],
+    DELIVERED: ['DELIVERED'],
+    CANCELLATIONS: ['CANCELLED'],
+    RTO: ['RETURN_REQUESTED', 'RETURNED'],
+};
+
 const LogisticsSummary: React.FC = () => {
     const [activeTab, setActiveTab] = useState('ALL');
     const [shipments, setShipments] = useState<any[]>([]);
     const [counts, setCounts] = useState<any>({});
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
     const navigate = useNavigate();
 
@@ -30,59 +44,51 @@ const LogisticsSummary: React.FC = () => {
         { id: 'ALL', label: 'Global View', icon: Search },
     ];
 
+    // Tab badges from server-side per-status totals (summary endpoint or event stream)
+    const applyStatusCounts = useCallback((byStatus: Record<string, number>) => {
+        const newCounts: Record<string, number> = {
+            ALL: Object.values(byStatus).reduce((acc, n) => acc + n, 0),
+        };
+        Object.entries(tabStatuses).forEach(([tab, statuses]) => {
+            newCounts[tab] = statuses.reduce((acc, s) => acc + (byStatus[s] || 0), 0);
+        });
+        setCounts(newCounts);
+    }, []);
+
     /**
      * ✨ Sync Dashboard Data
+     * Loads one keyset page of the active tab; a cursor appends the next page.
      */
-    const loadDashboardData = useCallback(async () => {
+    const loadDashboardData = useCallback(async (cursor?: string) => {
         try {
-            setLoading(true);
-            const data = await api.orderService.getAllAdminOrders();
-            
-            // Calculate real-time counts for every possible lifecycle status
-            const newCounts = {
-                ALL: data.length,
-                ORDERS: data.filter((o: any) => o.status === 'PAID').length,
-                CANCELLATIONS: data.filter((o: any) => o.status === 'CANCELLED').length,
-                MANIFESTED: data.filter((o: any) => o.status === 'DISPATCHED').length,
-                PICKUP: data.filter((o: any) => o.status === 'PENDING').length,
-                IN_TRANSIT: data.filter((o: any) => o.status === 'SHIPPED').length,
-                OUT_FOR_DELIVERY: data.filter((o: any) => o.status === 'OUT_FOR_DELIVERY').length,
-                DELIVERED: data.filter((o: any) => o.status === 'DELIVERED').length,
-                RTO: data.filter((o: any) => o.status.includes('RETURN') || o.status.includes('RTO')).length,
-            };
-            setCounts(newCounts);
-
-            // Filter logic based on active tab
-            let filtered = data;
-            if (activeTab !== 'ALL') {
-                const statusMap: Record<string, string> = {
-                    ORDERS: 'PAID',
-                    MANIFESTED: 'DISPATCHED',
-                    PICKUP: 'PENDING',
-                    IN_TRANSIT: 'SHIPPED',
-                    OUT_FOR_DELIVERY: 'OUT_FOR_DELIVERY',
-                    DELIVERED: 'DELIVERED',
-                    CANCELLATIONS: 'CANCELLED'
-                };
-
-                if (activeTab === 'RTO') {
-                    filtered = data.filter((o: any) => o.status.includes('RETURN') || o.status.includes('RTO'));
-                } else if (statusMap[activeTab]) {
-                    filtered = data.filter((o: any) => o.status === statusMap[activeTab]);
-                }
-            }
-
-            setShipments(filtered);
+            cursor ? setLoadingMore(true) : setLoading(true);
+            const page = await api.orderService.getAllAdminOrders({
+                status: tabStatuses[activeTab]?.join(','),
+                cursor,
+            });
+            setShipments(prev => cursor ? [...prev, ...page.items] : page.items);
+            setNextCursor(page.hasMore ? page.nextCursor : undefined);
         } catch (err) {
             console.error("Logistics sync failed:", err);
             toast.error("Failed to sync logistics manifest");
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     }, [activeTab]);
 
     useEffect(() => { loadDashboardData(); }, [loadDashboardData]);
 
+    // ✨ Live tab badges: summary snapshot first, then the admin event stream
+    useEffect(() => {
+        api.adminService.getDashboardSummary()
+            .then((summary: any) => applyStatusCounts(summary.ordersByStatus || {}))
+            .catch((err: any) => console.error("Logistics counts failed:", err));
+        return adminEventService.subscribe((name, data) => {
+            if (name === 'dashboard' && data.ordersByStatus) applyStatusCounts(data.ordersByStatus);
+        });
+    }, [applyStatusCounts]);
+
     const getEDDStatus = (status: string, eddDate?: string) => {
         if (status === 'DELIVERED') return { label: 'Completed', color: 'text-green-500' };
         if (!eddDate) return { label: 'EDD Pending', color: 'text-amber-500' };
@@ -236,6 +242,17 @@ const LogisticsSummary: React.FC = () => {
                                     )}
                                 </tbody>
                             </table>
+                            {nextCursor && (
+                                <div className="p-6 border-t border-gray-50 flex justify-center print:hidden">
+                                    <button
+                                        onClick={() => loadDashboardData(nextCursor)}
+                                        disabled={loadingMore}
+                                        className="flex items-center gap-2 px-8 py-3 bg-gray-50 text-[#2D4A73] rounded-2xl font-black text-[10px] uppercase tracking-widest hover:bg-[#2D4A73] hover:text-white transition-all disabled:opacity-50"
+                                    >
+                                        {loadingMore && <Loader2 size={14} className="animate-spin" />} Load More Shipments
+                                    </button>
+                                </div>
+                            )}
                         </div>
                     )}
                 </div>
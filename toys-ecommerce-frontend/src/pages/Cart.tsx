@@ -90,7 +90,10 @@ const Cart = () => {
     const handleRemove = async (itemId: number) => {
         try {
             await axios.delete(`http://localhost:8080/api/cart/item/${itemId}`, {
-                headers: { 'Authorization': `Bearer ${token}` }
+                headers: { 
+                    'X-User-Email': userEmail,
+                    'Authorization': `Bearer ${token}` 
+                }
             });
             toast.success("Removed from bag");
             fetchCart(); 
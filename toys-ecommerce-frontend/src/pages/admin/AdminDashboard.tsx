@@ -8,14 +8,13 @@ import {
 } from 'lucide-react';
 import { toast } from 'react-toastify';
 import { useNavigate } from 'react-router-dom';
-import { adminService, productService, categoryService } from '../../services/api'; 
+import { adminService, adminEventService, productService, categoryService } from '../../services/api'; 
 import AdminMediaActions from './AdminMediaActions'; 
 import Bulk360Upload from './Bulk360Upload'; 
 import AnnouncementManager from './AnnouncementManager';
 
 const AdminDashboard: React.FC = () => {
     const [activeTab, setActiveTab] = useState<'logistics' | 'announcements'>('logistics');
-    const [orders, setOrders] = useState<any[]>([]);
     const [loading, setLoading] = useState(true);
     const [stats, setStats] = useState({ totalRevenue: 0, pending: 0, fulfillmentRate: 0 });
     const navigate = useNavigate();
@@ -29,6 +28,21 @@ const AdminDashboard: React.FC = () => {
     const [selectedFiles, setSelectedFiles] = useState<FileList | null>(null);
     const [uploading, setUploading] = useState(false);
 
+    // ✨ Turns the server summary (or a live "dashboard" event) into the stat cards
+    const applySummary = useCallback((summary: any) => {
+        setStats(prev => {
+            const next = { ...prev };
+            if (summary.totalRevenue !== undefined) next.totalRevenue = summary.totalRevenue;
+            if (summary.pendingOrders !== undefined) next.pending = summary.pendingOrders;
+            if (summary.ordersByStatus) {
+                const byStatus: Record<string, number> = summary.ordersByStatus;
+                const total = Object.values(byStatus).reduce((acc, count) => acc + count, 0);
+                next.fulfillmentRate = total ? Math.round(((byStatus.DELIVERED || 0) / total) * 100) : 0;
+            }
+            return next;
+        });
+    }, []);
+
     // ✨ FIX: Helper to extract data from Axios response safely
     const extractData = (res: any) => {
         if (!res) return [];
@@ -55,20 +69,15 @@ const AdminDashboard: React.FC = () => {
 
         try {
             setLoading(true);
-            const [orderRes, catRes] = await Promise.all([
-                adminService.getAllOrders(),
+            const [summary, catRes] = await Promise.all([
+                adminService.getDashboardSummary(),
                 categoryService.getAllCategories()
             ]);
 
-            const orderData = extractData(orderRes);
-            setOrders(orderData);
             setCategories(extractData(catRes)); 
             
-            const revenue = orderData.reduce((acc: number, curr: any) => acc + curr.totalAmount, 0);
-            const pending = orderData.filter((o: any) => o.status === 'PENDING').length;
-            const rate = orderData.length ? ((orderData.filter((o: any) => o.status === 'DELIVERED').length / orderData.length) * 100).toFixed(0) : 0;
-            
-            setStats({ totalRevenue: revenue, pending: pending, fulfillmentRate: Number(rate) });
+            // ✨ Totals come from the server so they cover every order, not one page
+            applySummary(summary);
             
             // Initial product load
             await handleSearch();
@@ -77,10 +86,15 @@ const AdminDashboard: React.FC = () => {
         } finally {
             setLoading(false);
         }
-    }, [navigate, handleSearch]);
+    }, [navigate, handleSearch, applySummary]);
 
     useEffect(() => { fetchDashboardData(); }, [fetchDashboardData]);
 
+    // ✨ Live stat cards: the event stream sends only what changed
+    useEffect(() => adminEventService.subscribe((name, data) => {
+        if (name === 'dashboard') applySummary(data);
+    }), [applySummary]);
+
     const fetchProductDetails = async (id: number) => {
         try {
             const data = await productService.getProductById(String(id));
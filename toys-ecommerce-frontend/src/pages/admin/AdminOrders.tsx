@@ -10,7 +10,9 @@ import { motion, AnimatePresence } from 'framer-motion';
 
 const AdminOrders: React.FC = () => {
     const [orders, setOrders] = useState<any[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
 
     // ✨ Updated status options to include the full logistics lifecycle
@@ -28,15 +30,18 @@ const AdminOrders: React.FC = () => {
         fetchOrders();
     }, []);
 
-    const fetchOrders = async () => {
-        setLoading(true);
+    // ✨ One keyset page per call; a cursor appends the next page instead of reloading
+    const fetchOrders = async (cursor?: string) => {
+        cursor ? setLoadingMore(true) : setLoading(true);
         try {
-            const data = await api.orderService.getAllAdminOrders();
-            setOrders(data);
+            const page = await api.orderService.getAllAdminOrders({ cursor });
+            setOrders(prev => cursor ? [...prev, ...page.items] : page.items);
+            setNextCursor(page.hasMore ? page.nextCursor : undefined);
         } catch (err) {
             toast.error("Failed to load orders.");
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     };
 
@@ -206,6 +211,17 @@ const AdminOrders: React.FC = () => {
                             </tbody>
                         </table>
                     </div>
+                    {nextCursor && (
+                        <div className="p-6 border-t border-gray-50 flex justify-center">
+                            <button
+                                onClick={() => fetchOrders(nextCursor)}
+                                disabled={loadingMore}
+                                className="flex items-center gap-2 px-8 py-3 bg-gray-50 text-[#2D4A73] rounded-2xl font-black text-[10px] uppercase tracking-widest hover:bg-[#2D4A73] hover:text-white transition-all disabled:opacity-50"
+                            >
+                                {loadingMore && <Loader2 size={14} className="animate-spin" />} Load More Orders
+                            </button>
+                        </div>
+                    )}
                 </motion.div>
             </div>
         </div>
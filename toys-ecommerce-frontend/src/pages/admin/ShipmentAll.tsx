@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import api from '../../services/api';
+import api, { adminService, adminEventService } from '../../services/api';
 import { 
     Truck, Package, Search, ExternalLink, Calendar, 
     MapPin, Loader2, XCircle, FileText, Box 
@@ -7,57 +7,60 @@ import {
 import { motion, AnimatePresence } from 'framer-motion';
 
 const ShipmentAll: React.FC = () => {
-    const [allOrders, setAllOrders] = useState<any[]>([]);
+    const [orders, setOrders] = useState<any[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [activeTab, setActiveTab] = useState('ALL');
     const [searchTerm, setSearchTerm] = useState('');
+    const [statusCounts, setStatusCounts] = useState<Record<string, number>>({});
+
+    // ✨ Statuses behind each tab, sent to the server as the list filter
+    const tabStatuses: Record<string, string[]> = {
+        CANCELLATIONS: ['CANCELLED'],
+        MANIFESTED: ['SHIPPED', 'DISPATCHED', 'DELIVERED'],
+        PICKUP: ['PENDING', 'PAID'],
+    };
 
     useEffect(() => {
         fetchLogisticsData();
+    }, [activeTab]);
+
+    // ✨ Tab badges come from the server-side summary, then follow the admin event stream
+    useEffect(() => {
+        adminService.getDashboardSummary()
+            .then(summary => setStatusCounts(summary.ordersByStatus || {}))
+            .catch(err => console.error("Summary fetch failed:", err));
+        return adminEventService.subscribe((name, data) => {
+            if (name === 'dashboard' && data.ordersByStatus) setStatusCounts(data.ordersByStatus);
+        });
     }, []);
 
-    const fetchLogisticsData = async () => {
+    const fetchLogisticsData = async (cursor?: string) => {
         try {
-            setLoading(true);
-            // Fetch all admin orders to categorize them properly across tabs
-            const data = await api.orderService.getAllAdminOrders();
-            setAllOrders(data);
+            cursor ? setLoadingMore(true) : setLoading(true);
+            const page = await api.orderService.getAllAdminOrders({ status: tabStatuses[activeTab]?.join(','), cursor });
+            setOrders(prev => cursor ? [...prev, ...page.items] : page.items);
+            setNextCursor(page.hasMore ? page.nextCursor : undefined);
         } catch (err) {
             console.error("Logistics fetch failed:", err);
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     };
 
-    // ✨ Logic to categorize data based on your Dashboard Summary Tabs
-    const getFilteredData = () => {
-        const matchesSearch = allOrders.filter(s => 
-            s.orderId?.toLowerCase().includes(searchTerm.toLowerCase()) || 
-            s.userEmail?.toLowerCase().includes(searchTerm.toLowerCase()) ||
-            s.trackingId?.toLowerCase().includes(searchTerm.toLowerCase())
-        );
-
-        switch(activeTab) {
-            case 'CANCELLATIONS': 
-                return matchesSearch.filter(o => o.status === 'CANCELLED');
-            case 'MANIFESTED': 
-                return matchesSearch.filter(o => ['SHIPPED', 'DISPATCHED', 'DELIVERED'].includes(o.status));
-            case 'PICKUP': 
-                return matchesSearch.filter(o => o.status === 'PENDING' || o.status === 'PAID');
-            default: 
-                return matchesSearch;
-        }
-    };
-
-    const filtered = getFilteredData();
+    // Search narrows the rows already loaded for the active tab
+    const filtered = orders.filter(s => 
+        s.orderId?.toLowerCase().includes(searchTerm.toLowerCase()) || 
+        s.userEmail?.toLowerCase().includes(searchTerm.toLowerCase()) ||
+        s.trackingId?.toLowerCase().includes(searchTerm.toLowerCase())
+    );
 
     // Utility to get counts for tab badges
     const getCount = (tab: string) => {
-        if (tab === 'ALL') return allOrders.length;
-        if (tab === 'CANCELLATIONS') return allOrders.filter(o => o.status === 'CANCELLED').length;
-        if (tab === 'MANIFESTED') return allOrders.filter(o => ['SHIPPED', 'DISPATCHED', 'DELIVERED'].includes(o.status)).length;
-        if (tab === 'PICKUP') return allOrders.filter(o => o.status === 'PENDING' || o.status === 'PAID').length;
-        return 0;
+        if (tab === 'ALL') return Object.values(statusCounts).reduce((acc, n) => acc + n, 0);
+        return (tabStatuses[tab] || []).reduce((acc, s) => acc + (statusCounts[s] || 0), 0);
     };
 
     const TabButton = ({ id, label, icon: Icon }: any) => (
@@ -192,6 +195,18 @@ const ShipmentAll: React.FC = () => {
                         </div>
                     )}
                 </div>
+
+                {nextCursor && (
+                    <div className="mt-10 flex justify-center">
+                        <button
+                            onClick={() => fetchLogisticsData(nextCursor)}
+                            disabled={loadingMore}
+                            className="flex items-center gap-2 px-8 py-4 bg-white text-[#2D4A73] rounded-2xl border border-gray-100 font-black text-[10px] uppercase tracking-widest hover:bg-[#2D4A73] hover:text-white transition-all disabled:opacity-50"
+                        >
+                            {loadingMore && <Loader2 size={14} className="animate-spin" />} Load More Shipments
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
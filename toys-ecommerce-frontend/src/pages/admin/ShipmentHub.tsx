@@ -1,46 +1,61 @@
 import React, { useEffect, useState } from 'react';
-import api from '../../services/api';
+import api, { adminService, adminEventService } from '../../services/api';
 import { Truck, Package, Search, ExternalLink, Calendar, MapPin, Loader2, XCircle, FileText, Box } from 'lucide-react';
 import { motion, AnimatePresence } from 'framer-motion';
 
 const ShipmentHub: React.FC = () => {
     const [allData, setAllData] = useState<any[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
     const [activeTab, setActiveTab] = useState('ORDERS');
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
+    const [statusCounts, setStatusCounts] = useState<Record<string, number>>({});
+
+    // Statuses behind each tab, sent to the server as the list filter
+    const tabStatuses: Record<string, string[]> = {
+        ORDERS: ['PENDING', 'SHIPPED', 'DISPATCHED', 'DELIVERED'],
+        CANCELLATIONS: ['CANCELLED'],
+        MANIFESTED: ['SHIPPED', 'DISPATCHED'],
+        PICKUP: ['PENDING'],
+    };
 
     useEffect(() => {
         fetchLogisticsData();
+    }, [activeTab]);
+
+    // ✨ Tab badges: server-side summary first, then the admin event stream
+    useEffect(() => {
+        adminService.getDashboardSummary()
+            .then(summary => setStatusCounts(summary.ordersByStatus || {}))
+            .catch(() => console.error("Failed to load shipment counts"));
+        return adminEventService.subscribe((name, data) => {
+            if (name === 'dashboard' && data.ordersByStatus) setStatusCounts(data.ordersByStatus);
+        });
     }, []);
 
-    const fetchLogisticsData = async () => {
+    const fetchLogisticsData = async (cursor?: string) => {
         try {
-            setLoading(true);
-            // Fetching all orders to categorize them into shipment tabs
-            const data = await api.orderService.getAllAdminOrders();
-            setAllData(data);
+            cursor ? setLoadingMore(true) : setLoading(true);
+            // One page of the active tab; "Load More" appends the next one
+            const page = await api.orderService.getAllAdminOrders({ status: tabStatuses[activeTab].join(','), cursor });
+            setAllData(prev => cursor ? [...prev, ...page.items] : page.items);
+            setNextCursor(page.hasMore ? page.nextCursor : undefined);
         } catch (err) {
             console.error("Failed to load shipments");
         } finally {
             setLoading(false);
+            setLoadingMore(false);
         }
     };
 
-    // Categorization logic for the tabs shown in your screenshot
-    const getFilteredData = () => {
-        switch(activeTab) {
-            case 'CANCELLATIONS': return allData.filter(o => o.status === 'CANCELLED');
-            case 'MANIFESTED': return allData.filter(o => o.status === 'SHIPPED' || o.status === 'DISPATCHED');
-            case 'PICKUP': return allData.filter(o => o.status === 'PENDING');
-            default: return allData.filter(o => ['PENDING', 'SHIPPED', 'DISPATCHED', 'DELIVERED'].includes(o.status));
-        }
-    };
-
-    const filtered = getFilteredData().filter(s => 
+    const filtered = allData.filter(s => 
         s.orderId?.toLowerCase().includes(searchTerm.toLowerCase()) || 
         s.userEmail?.toLowerCase().includes(searchTerm.toLowerCase())
     );
 
+    const countFor = (tab: string) => tabStatuses[tab].reduce((acc, s) => acc + (statusCounts[s] || 0), 0);
+
     const TabButton = ({ id, label, icon: Icon }: any) => (
         <button 
             onClick={() => setActiveTab(id)}
@@ -50,7 +65,7 @@ const ShipmentHub: React.FC = () => {
         >
             <Icon size={14} /> {label}
             <span className="ml-2 bg-gray-100 text-gray-500 px-2 py-0.5 rounded-md text-[9px]">
-                {allData.filter(o => id === 'ORDERS' ? true : o.status.includes(id)).length}
+                {countFor(id)}
             </span>
         </button>
     );
@@ -147,6 +162,17 @@ const ShipmentHub: React.FC = () => {
                         )}
                     </tbody>
                 </table>
+                {nextCursor && (
+                    <div className="p-6 border-t border-gray-50 flex justify-center">
+                        <button
+                            onClick={() => fetchLogisticsData(nextCursor)}
+                            disabled={loadingMore}
+                            className="flex items-center gap-2 px-8 py-3 bg-gray-50 text-[#2D4A73] rounded-2xl font-bold text-[10px] uppercase tracking-widest hover:bg-[#2D4A73] hover:text-white transition-all disabled:opacity-50"
+                        >
+                            {loadingMore && <Loader2 size={14} className="animate-spin" />} Load More
+                        </button>
+                    </div>
+                )}
             </div>
         </div>
     );
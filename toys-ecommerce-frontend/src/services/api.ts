@@ -187,6 +187,17 @@ export const cartService = {
 /**
 * 8. Order Service Implementation
 */
+/**
+ * One keyset page of an order list endpoint. `status` may be a comma-separated
+ * list; pass the returned `nextCursor` back to load the following page.
+ */
+export interface OrderPageParams { status?: string; cursor?: string; size?: number; }
+
+const fetchOrderPage = async (url: string, { status, cursor, size = 50 }: OrderPageParams = {}) => {
+    const response = await apiClient.get(url, { params: { status, cursor, size } });
+    return response.data as { items: any[]; nextCursor?: string; hasMore: boolean };
+};
+
 export const orderService = {
     getUserOrders: async (email: string) => {
         const response = await apiClient.get(`/orders/user/${email}`);
@@ -204,16 +215,13 @@ export const orderService = {
         const response = await apiClient.put(`/admin/orders/${orderId}/status`, { status });
         return response.data;
     },
-    getAllAdminOrders: async () => {
-        const response = await apiClient.get('/admin/orders');
-        return response.data;
-    },
+    getAllAdminOrders: async (params?: OrderPageParams) => fetchOrderPage('/admin/orders', params),
     getMyTracking: async () => {
         const response = await apiClient.get('/orders/my-tracking');
         return response.data;
     },
     downloadInvoice: async (id: number) => {
-        const response = await apiClient.get(`/admin/orders/${id}/invoice`, { responseType: 'blob' });
+        const response = await apiClient.get(`/invoices/${id}`, { responseType: 'blob' });
         return response.data;
     },
     createOrder: async (orderData: any) => {
@@ -357,12 +365,30 @@ export const locationService = {
 
 export const adminService = {
     getLowStock: (threshold: number) => apiClient.get(`/products/low-stock?threshold=${threshold}`),
-    getAllOrders: () => apiClient.get('/orders/all'),
+    getAllOrders: async (params?: OrderPageParams) => ({ data: await fetchOrderPage('/orders/all', params) }),
+    // ✨ Revenue and status counts computed server-side over every order
+    getDashboardSummary: async () => {
+        const response = await apiClient.get('/admin/summary');
+        return response.data;
+    },
     updateOrderStatus: (id: string, status: string, agentName: string, agentPhone: string) => 
         apiClient.put(`/orders/${id}/status`, null, { params: { status, agentName, agentPhone } }),
     deleteImageId: async (id: number) => apiClient.delete(`/gallery/${id}`),
-    downloadReport: (type: string, start: string, end: string, format: string) => {
-        return apiClient.get('/admin/reports/download', { params: { type, start, end, format }, responseType: 'blob' });
+    downloadReport: async (type: string, start: string, end: string, format: string) => {
+        const response = await apiClient.get('/admin/reports/download', { params: { type, start, end, format }, responseType: 'blob' });
+        if (response.status !== 202) {
+            return response;
+        }
+        // Large ranges run as a background job: poll until the file is ready
+        let job = JSON.parse(await (response.data as Blob).text());
+        while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+            await new Promise(resolve => setTimeout(resolve, 2000));
+            job = (await apiClient.get(`/admin/reports/jobs/${job.jobId}`)).data;
+        }
+        if (job.status !== 'DONE') {
+            throw new Error(job.error || 'Report generation failed');
+        }
+        return apiClient.get(`/admin/reports/jobs/${job.jobId}/download`, { responseType: 'blob' });
     },
     applyGlobalOffer: async (data: any) => {
         const response = await apiClient.post('/admin/offers/apply', data);
@@ -388,6 +414,57 @@ export const adminService = {
     getRecentActivities: () => apiClient.get('/admin/audit-logs'),
 };
 
+/**
+ * Live admin counters over Server-Sent Events.
+ * Uses fetch instead of EventSource so the JWT can go in the Authorization header.
+ * The first "dashboard"/"shipments" events are full snapshots, later ones only changed keys.
+ * Returns a function that closes the stream.
+ */
+export const adminEventService = {
+    subscribe: (onEvent: (name: string, data: any) => void) => {
+        const controller = new AbortController();
+
+        const connect = async () => {
+            try {
+                const token = localStorage.getItem('jwtToken');
+                const response = await fetch(`${API_BASE_URL}/admin/events`, {
+                    headers: token ? { Authorization: `Bearer ${token}` } : {},
+                    signal: controller.signal,
+                });
+                if (!response.ok || !response.body) {
+                    throw new Error(`Event stream failed: ${response.status}`);
+                }
+                const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = '';
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    let boundary;
+                    while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                        const frame = buffer.slice(0, boundary);
+                        buffer = buffer.slice(boundary + 2);
+                        let name = 'message';
+                        const data: string[] = [];
+                        frame.split('\n').forEach(line => {
+                            if (line.startsWith('event:')) name = line.slice(6).trim();
+                            else if (line.startsWith('data:')) data.push(line.slice(5));
+                        });
+                        if (data.length) onEvent(name, JSON.parse(data.join('\n')));
+                    }
+                }
+            } catch (e) {
+                if (controller.signal.aborted) return;
+            }
+            // Server timeout or network drop: reconnect and start again from a snapshot
+            if (!controller.signal.aborted) setTimeout(connect, 3000);
+        };
+
+        connect();
+        return () => controller.abort();
+    }
+};
+
 export const agentService = {
     updateStatus: (orderId: string, status: string, note: string) => 
         apiClient.put(`/orders/${orderId}/agent-update`, null, { params: { status, deliveryNote: note } })